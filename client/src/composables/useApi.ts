@@ -1,17 +1,67 @@
-import type { Shipment, Vendor, Cargo, Route, Delivery } from '../types'
+import type { Shipment, Vendor, Cargo, Route, Delivery, CursorPage, DashboardSummary, SyncResponse, AuthTokens, ShipmentCargoSummary } from '../types'
 
 const BASE_URL = 'http://localhost:8081/api'
+const TOKENS_KEY = 'authTokens'
 
-// Helper function for fetch requests
-const apiRequest = async <T>(url: string, options: RequestInit = {}): Promise<T> => {
-  const response = await fetch(`${BASE_URL}${url}`, {
+// Bearer tokens are only present when the server runs in stateless mode; otherwise the session cookie is used
+export const setAuthTokens = (tokens: AuthTokens) => localStorage.setItem(TOKENS_KEY, JSON.stringify(tokens))
+export const clearAuthTokens = () => localStorage.removeItem(TOKENS_KEY)
+const getAuthTokens = (): AuthTokens | null => {
+  const stored = localStorage.getItem(TOKENS_KEY)
+  return stored ? JSON.parse(stored) : null
+}
+
+// Requests that fail with 401 at the same time share one refresh
+let refreshing: Promise<boolean> | null = null
+
+const refreshAuthTokens = (): Promise<boolean> => {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const tokens = getAuthTokens()
+      if (!tokens) return false
+      try {
+        // Sent without the expired access token, which the server would reject before this endpoint
+        const response = await fetch(`${BASE_URL}/auth/refresh`, {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: JSON.stringify({ refreshToken: tokens.refreshToken }),
+        })
+        if (!response.ok) {
+          clearAuthTokens()
+          return false
+        }
+        const body = await response.json()
+        setAuthTokens(body.tokens)
+        return true
+      } catch {
+        return false
+      }
+    })().finally(() => {
+      refreshing = null
+    })
+  }
+  return refreshing
+}
+
+const send = (url: string, options: RequestInit) => {
+  const tokens = getAuthTokens()
+  return fetch(`${BASE_URL}${url}`, {
+    ...options,
     credentials: 'include',  // Important for session cookies
     headers: {
       'Content-Type': 'application/json',
+      ...(tokens ? { Authorization: `${tokens.tokenType} ${tokens.accessToken}` } : {}),
       ...options.headers,
     },
-    ...options,
   })
+}
+
+// Helper function for fetch requests
+const apiRequest = async <T>(url: string, options: RequestInit = {}): Promise<T> => {
+  let response = await send(url, options)
+  if (response.status === 401 && getAuthTokens() && await refreshAuthTokens()) {
+    response = await send(url, options)
+  }
 
   if (!response.ok) {
     throw new Error(`HTTP error! status: ${response.status}`)
@@ -69,6 +119,20 @@ export const useApi = () => {
     }
   }
   
+  const getShipmentPage = async (params: Record<string, string | number> = {}): Promise<CursorPage<Shipment>> => {
+    const query = new URLSearchParams(Object.entries(params).map(([k, v]) => [k, String(v)])).toString()
+    return apiRequest<CursorPage<Shipment>>(`/shipments/page${query ? `?${query}` : ''}`)
+  }
+
+  const getShipmentCargo = async (id: number, params: Record<string, string | number> = {}): Promise<CursorPage<Cargo>> => {
+    const query = new URLSearchParams(Object.entries(params).map(([k, v]) => [k, String(v)])).toString()
+    return apiRequest<CursorPage<Cargo>>(`/shipments/${id}/cargo${query ? `?${query}` : ''}`)
+  }
+
+  const getShipmentCargoSummary = async (id: number): Promise<ShipmentCargoSummary> => {
+    return apiRequest<ShipmentCargoSummary>(`/shipments/${id}/cargo/summary`)
+  }
+
   const getShipment = async (id: number): Promise<Shipment | null> => {
     try {
       const data = await apiRequest<Shipment>(`/shipments/${id}`)
@@ -328,6 +392,16 @@ export const useApi = () => {
     }
   }
 
+  // Dashboard API
+  const getDashboardSummary = async (): Promise<DashboardSummary> => {
+    return apiRequest<DashboardSummary>('/dashboard/summary')
+  }
+
+  // Sync API: rows changed since the cursor, or everything when it is null
+  const getChanges = async (since: string | null): Promise<SyncResponse> => {
+    return apiRequest<SyncResponse>(`/sync${since ? `?since=${encodeURIComponent(since)}` : ''}`)
+  }
+
   return {
     // Generic methods
     get,
@@ -336,6 +410,9 @@ export const useApi = () => {
     del,
     // Shipments
     getShipments,
+    getShipmentPage,
+    getShipmentCargo,
+    getShipmentCargoSummary,
     getShipment,
     createShipment,
     updateShipment,
@@ -362,5 +439,9 @@ export const useApi = () => {
     getDeliveries,
     getDelivery,
     createDelivery,
+    // Dashboard
+    getDashboardSummary,
+    // Sync
+    getChanges,
   }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+import { ref, computed } from 'vue'
+import { useApi } from './useApi'
+import type { Shipment, Cargo, Route, Vendor, Delivery, SyncResponse } from '../types'
+
+// Shared by every view, so all pages reuse one cursor and one copy of the data
+const shipments = ref<Shipment[]>([])
+const cargo = ref<Cargo[]>([])
+const routes = ref<Route[]>([])
+const vendors = ref<Vendor[]>([])
+const deliveries = ref<Delivery[]>([])
+let cursor: string | null = null
+let inFlight: Promise<void> | null = null
+let rerun = false
+
+// Upserts changed rows by id and drops deleted ones, keeping the existing order
+const applyChanges = <T>(current: T[], changed: T[], deleted: number[] | undefined, full: boolean,
+                        idOf: (item: T) => number | undefined): T[] => {
+  const byId = new Map<number | undefined, T>(full ? [] : current.map(item => [idOf(item), item]))
+  for (const item of changed) {
+    byId.set(idOf(item), item)
+  }
+  for (const id of deleted ?? []) {
+    byId.delete(id)
+  }
+  return [...byId.values()]
+}
+
+export const useSync = () => {
+  const { getChanges } = useApi()
+
+  const syncOnce = async () => {
+    const changes: SyncResponse = await getChanges(cursor)
+    const deleted = changes.deleted ?? {}
+    shipments.value = applyChanges(shipments.value, changes.shipments, deleted.shipments, changes.full, s => s.shipmentId)
+    cargo.value = applyChanges(cargo.value, changes.cargo, deleted.cargo, changes.full, c => c.cargoId)
+    routes.value = applyChanges(routes.value, changes.routes, deleted.routes, changes.full, r => r.routeId)
+    vendors.value = applyChanges(vendors.value, changes.vendors, deleted.vendors, changes.full, v => v.vendorId)
+    deliveries.value = applyChanges(deliveries.value, changes.deliveries, deleted.deliveries, changes.full, d => d.deliveryId)
+    cursor = changes.nextCursor
+  }
+
+  /**
+   * Fetches what changed since the last sync (everything on the first call) and merges it into
+   * the shared lists. Calls made while a sync is running fold into one follow-up sync.
+   */
+  const sync = async (): Promise<void> => {
+    if (inFlight) {
+      rerun = true
+      return inFlight
+    }
+    inFlight = (async () => {
+      do {
+        rerun = false
+        await syncOnce()
+      } while (rerun)
+    })().finally(() => {
+      inFlight = null
+    })
+    return inFlight
+  }
+
+  // The deliveries page only lists deliveries whose shipment has been delivered
+  const deliveredDeliveries = computed(() => deliveries.value.filter(d => d.shipment?.status === 'Delivered'))
+
+  return {
+    sync,
+    shipments,
+    cargo,
+    routes,
+    vendors,
+    deliveries,
+    deliveredDeliveries
+  }
+}
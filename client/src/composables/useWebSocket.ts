@@ -1,6 +1,7 @@
 import { ref, onUnmounted } from 'vue'
 import { Client } from '@stomp/stompjs'
 import SockJS from 'sockjs-client'
+import type { EventEnvelope } from '../types'
 
 export interface WebSocketMessage {
   topic: string
@@ -96,6 +97,35 @@ export const useWebSocket = () => {
     }
   }
 
+  /**
+   * Subscribes to a fine-grained destination such as /topic/shipments/42 or
+   * /topic/vendors/3/shipments. An optional selector is evaluated on the server,
+   * e.g. "headers.status == 'Delayed' && headers.vendorId == '3'". Updates that change a
+   * routing attribute also reach the old parent's topic and carry previous* headers, so
+   * "headers.status == 'Delayed' || headers.previousStatus == 'Delayed'" also sees
+   * shipments leaving Delayed.
+   * The server coalesces events into one frame per short window, so a frame holds an
+   * array of net changes; onEvent is called once per entity in it.
+   * Returns a function that cancels the subscription.
+   */
+  const subscribe = (destination: string, onEvent: (event: EventEnvelope) => void, selector?: string) => {
+    if (!client.value || !client.value.connected) {
+      console.warn(`Cannot subscribe to ${destination} - client not connected`)
+      return () => {}
+    }
+    const subscription = client.value.subscribe(
+      destination,
+      (message) => {
+        const body = JSON.parse(message.body) as EventEnvelope | EventEnvelope[]
+        for (const event of Array.isArray(body) ? body : [body]) {
+          onEvent(event)
+        }
+      },
+      selector ? { selector } : {}
+    )
+    return () => subscription.unsubscribe()
+  }
+
   const disconnect = () => {
     if (client.value) {
       client.value.deactivate()
@@ -119,6 +149,7 @@ export const useWebSocket = () => {
   return {
     connect,
     disconnect,
+    subscribe,
     connected,
     messages,
     clearMessages,
@@ -4,8 +4,8 @@ export interface Shipment {
   destination: string;
   status: string;
   estimatedDelivery: string;
-  assignedRoute?: Route;
-  assignedVendor?: Vendor;
+  assignedRoute?: RouteRef;
+  assignedVendor?: VendorRef;
   createdAt?: string;
   updatedAt?: string;
   cargoItems?: Cargo[];
@@ -13,7 +13,7 @@ export interface Shipment {
 
 export interface Cargo {
   cargoId?: number;
-  shipment?: Shipment;
+  shipment?: ShipmentRef;
   type: string;
   description: string;
   value: number;
@@ -21,6 +21,7 @@ export interface Cargo {
   weightUnit?: string;
   volume?: number;
   createdAt?: string;
+  updatedAt?: string;
 }
 
 export interface Vendor {
@@ -33,6 +34,7 @@ export interface Vendor {
   serviceType: string;
   isActive?: boolean;
   createdAt?: string;
+  updatedAt?: string;
 }
 
 export interface Route {
@@ -48,9 +50,78 @@ export interface Route {
   updatedAt?: string;
 }
 
+// The columns of a referenced row that the server embeds in shipment, cargo and delivery responses
+export type RouteRef = Pick<Route, 'routeId' | 'originPort' | 'destinationPort' | 'transportationMode' | 'status'>;
+export type VendorRef = Pick<Vendor, 'vendorId' | 'name' | 'serviceType'>;
+export type ShipmentRef = Pick<Shipment, 'shipmentId' | 'origin' | 'destination' | 'status'>;
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+// Stored cargo totals of one shipment (GET /api/shipments/{id}/cargo/summary)
+export interface ShipmentCargoSummary {
+  shipmentId: number;
+  itemCount: number;
+  totalValue: number;
+  totalVolume: number;
+  totalWeightKg: number;
+  version: number;
+  updatedAt?: string;
+}
+
+export interface DashboardSummary {
+  shipmentsByStatus: Record<string, number>;
+  totalShipments: number;
+  activeRoutes: number;
+  activeVendors: number;
+  totalCargoItems: number;
+  totalCargoValue: number;
+  totalCargoWeightKg: number;
+  deliveriesToday: number;
+  generatedAt: string;
+}
+
+// Event pushed on entity topics such as /topic/shipments/42 (short keys as sent by the server)
+export interface EventEnvelope {
+  v: number;
+  t: 'SHIPMENT' | 'CARGO' | 'ROUTE' | 'VENDOR' | 'DELIVERY';
+  id?: number;
+  op: 'CREATED' | 'UPDATED' | 'DELETED';
+  ch?: Record<string, unknown>;
+  ts: number;
+  seq?: number;
+  r?: Record<string, unknown>;
+  rp?: Record<string, unknown>;
+}
+
 export interface Delivery {
   deliveryId?: number;
-  shipment?: Shipment;
+  shipment?: ShipmentRef;
   actualDeliveryDate: string;
   recipient: string;
+  status?: string;
+  createdAt?: string;
+}
+
+// Response of GET /api/sync; when full is true the lists replace the client's copy
+export interface SyncResponse {
+  full: boolean;
+  nextCursor: string;
+  shipments: Shipment[];
+  cargo: Cargo[];
+  routes: Route[];
+  vendors: Vendor[];
+  deliveries: Delivery[];
+  deleted: Partial<Record<'shipments' | 'cargo' | 'routes' | 'vendors' | 'deliveries', number[]>>;
+}
+
+// Issued by login/refresh when the server runs with auth.tokens.enabled
+export interface AuthTokens {
+  accessToken: string;
+  refreshToken: string;
+  tokenType: string;
+  expiresIn: number;
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+import com.supplychain.service.CargoConsolidationSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * In-process benchmark of the cargo consolidation solver: plan time and packing quality on a
+ * synthetic lane, for a single first-fit decreasing pass and for the time-budgeted parallel
+ * search. Compile the server first, then run from the repository root:
+ *
+ * <pre>
+ * (cd server && mvn -q compile)
+ * java -cp server/target/classes server/benchmarks/CargoConsolidationBenchmark.java [items] [openShipments] [budgetMs] [seed]
+ * java -cp server/target/classes server/benchmarks/CargoConsolidationBenchmark.java 100000 200 2000
+ * </pre>
+ *
+ * Caps are 20,000 kg and 33 m3 (a 20ft container), as in the default configuration. Items mix
+ * dense pieces (weight-bound) with bulky ones (volume-bound), so neither dimension alone
+ * decides the packing. Quality is reported against the lower bound
+ * max(total weight / cap, total volume / cap). Every plan is checked for caps and for each item
+ * being placed once, so a wrong plan fails the run instead of producing a fast number.
+ */
+public class CargoConsolidationBenchmark {
+
+    private static final long MAX_WEIGHT = 20_000_000;  // grams
+    private static final long MAX_VOLUME = 3_300;       // hundredths of m3
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int open = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long budgetMs = args.length > 2 ? Long.parseLong(args[2]) : 2_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        Random random = new Random(seed);
+        List<CargoConsolidationSolver.Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            boolean dense = random.nextBoolean();
+            // Dense: 50-4000 kg in 0.05-2 m3; bulky: 5-500 kg in 0.5-12 m3
+            long weight = dense ? 50_000 + random.nextInt(3_950_000) : 5_000 + random.nextInt(495_000);
+            long volume = dense ? 5 + random.nextInt(195) : 50 + random.nextInt(1_150);
+            items.add(new CargoConsolidationSolver.Item(i + 1, weight, volume));
+        }
+        List<CargoConsolidationSolver.OpenBin> openBins = new ArrayList<>(open);
+        for (int b = 0; b < open; b++) {
+            openBins.add(new CargoConsolidationSolver.OpenBin(-(b + 1), random.nextLong(MAX_WEIGHT), random.nextLong(MAX_VOLUME)));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("lane: %d items, %d open shipments; caps %d kg, %.0f m3; %d cores%n",
+                n, open, MAX_WEIGHT / 1000, MAX_VOLUME / 100.0, cores);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = new ForkJoinPool(cores);
+
+        // One pass (no search budget): warm up, then report the median
+        int runs = 10;
+        long[] nanos = new long[runs];
+        CargoConsolidationSolver.Solution pass = null;
+        for (int r = 0; r < 2 * runs; r++) {
+            long started = System.nanoTime();
+            pass = new CargoConsolidationSolver(single).solve(items, openBins, MAX_WEIGHT, MAX_VOLUME, 0);
+            if (r >= runs) {
+                nanos[r - runs] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(nanos);
+        report("single pass (ffd, max-share)", pass, nanos[runs / 2] / 1e6, items, openBins);
+
+        for (long budget : new long[] {budgetMs / 4, budgetMs}) {
+            for (ForkJoinPool pool : List.of(single, all)) {
+                long started = System.nanoTime();
+                CargoConsolidationSolver.Solution s = new CargoConsolidationSolver(pool).solve(items, openBins, MAX_WEIGHT, MAX_VOLUME, budget);
+                double ms = (System.nanoTime() - started) / 1e6;
+                report(String.format("budget %5d ms, %2d thread(s)", budget, pool.getParallelism()), s, ms, items, openBins);
+            }
+        }
+        single.shutdown();
+        all.shutdown();
+    }
+
+    private static void report(String label, CargoConsolidationSolver.Solution s, double ms,
+                               List<CargoConsolidationSolver.Item> items, List<CargoConsolidationSolver.OpenBin> openBins) {
+        verify(s, items, openBins);
+        System.out.printf("%-32s %8.1f ms  new shipments %6d  lower bound %6d  (+%.2f%%)  attempts %3d  best %-14s%s%n",
+                label, ms, s.newBins(), s.lowerBound(), 100.0 * (s.newBins() - s.lowerBound()) / Math.max(1, s.lowerBound()),
+                s.attempts(), s.ordering(), s.timedOut() ? "  (budget spent)" : "");
+    }
+
+    private static void verify(CargoConsolidationSolver.Solution s, List<CargoConsolidationSolver.Item> items,
+                               List<CargoConsolidationSolver.OpenBin> openBins) {
+        int bins = openBins.size() + s.newBins();
+        long[] weight = new long[bins];
+        long[] volume = new long[bins];
+        for (int b = 0; b < openBins.size(); b++) {
+            weight[b] = openBins.get(b).weight();
+            volume[b] = openBins.get(b).volume();
+        }
+        boolean[] touched = new boolean[bins];
+        for (int i = 0; i < items.size(); i++) {
+            int bin = s.binOf()[i];
+            if (bin == CargoConsolidationSolver.UNPLACED) {
+                throw new IllegalStateException("item " + i + " left unplaced although it fits a shipment");
+            }
+            weight[bin] += items.get(i).weight();
+            volume[bin] += items.get(i).volume();
+            touched[bin] = true;
+        }
+        for (int b = 0; b < bins; b++) {
+            if (touched[b] && (weight[b] > MAX_WEIGHT || volume[b] > MAX_VOLUME)) {
+                throw new IllegalStateException("shipment " + b + " over cap: " + weight[b] + " g, " + volume[b] + " cm3/100");
+            }
+            if (b >= openBins.size() && !touched[b]) {
+                throw new IllegalStateException("new shipment " + b + " is empty");
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against one API path at high concurrency, for comparing the platform-thread
+ * pool with virtual threads. Run it once against each mode with the same data and settings:
+ *
+ * <pre>
+ * mvn spring-boot:run                        # platform threads (Tomcat max 200)
+ * mvn -Pjava21 spring-boot:run               # virtual threads, needs JDK 21
+ * java server/benchmarks/ConcurrencyBenchmark.java [baseUrl] [email] [password] [clients] [seconds] [path]
+ * java server/benchmarks/ConcurrencyBenchmark.java http://localhost:8081 ops@example.com secret 1000 60 /api/shipments/page?limit=50
+ * </pre>
+ *
+ * The default path runs a JDBC query per request, so it measures the blocking case virtual
+ * threads are meant for. Both modes share the Hikari pool, so raise
+ * spring.datasource.hikari.maximum-pool-size for both runs or it caps throughput in each.
+ */
+public class ConcurrencyBenchmark {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String email = args.length > 1 ? args[1] : "bench@example.com";
+        String password = args.length > 2 ? args[2] : "bench-password";
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        String path = args.length > 5 ? args[5] : "/api/shipments/page?limit=50";
+
+        // Session mode authenticates through the JSESSIONID cookie, stateless mode through the bearer token
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String authorization = login(client, baseUrl, email, password);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60)).GET();
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        HttpRequest request = builder.build();
+
+        // Warm up the JIT and the connection pool before measuring
+        runLoad(client, request, Math.min(clients, 50), Math.max(5, seconds / 6));
+
+        long start = System.nanoTime();
+        Result result = runLoad(client, request, clients, seconds);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        List<Long> latencies = result.latenciesMicros;
+        Collections.sort(latencies);
+        System.out.printf("%s with %d clients for %.1fs%n", path, clients, elapsed);
+        System.out.printf("throughput: %.1f req/s (%d ok, %d errors)%n", latencies.size() / elapsed, latencies.size(), result.errors);
+        if (!latencies.isEmpty()) {
+            System.out.printf("latency: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    percentile(latencies, 0.50) / 1000.0, percentile(latencies, 0.99) / 1000.0,
+                    latencies.get(latencies.size() - 1) / 1000.0);
+        }
+        System.exit(0);
+    }
+
+    private record Result(List<Long> latenciesMicros, long errors) {}
+
+    private static Result runLoad(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(pool.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long t0 = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200 || status == 304) {
+                            latencies.add((System.nanoTime() - t0) / 1000);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            all.addAll(future.get());
+        }
+        pool.shutdown();
+        return new Result(all, errors.get());
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password) throws Exception {
+        String credentials = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = post(client, baseUrl + "/api/auth/login", credentials);
+        if (response.statusCode() == 401) {
+            post(client, baseUrl + "/api/auth/signup", "{\"email\":\"" + email + "\",\"password\":\"" + password + "\",\"name\":\"Benchmark\"}");
+            response = post(client, baseUrl + "/api/auth/login", credentials);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        Matcher token = ACCESS_TOKEN.matcher(response.body());
+        return token.find() ? "Bearer " + token.group(1) : null;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.floor(p * sorted.size())));
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,128 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Login storm against a running server. Signs up one user, then has {@code loginThreads} clients
+ * log in as fast as they can for {@code seconds} while one more client keeps calling
+ * /actuator/health. Reports logins/sec, 401/429 counts and the health latency with and without
+ * the storm, which is the cost of logins to the rest of the API.
+ *
+ * <pre>
+ * java server/benchmarks/LoginBenchmark.java [baseUrl] [loginThreads] [seconds]
+ * java server/benchmarks/LoginBenchmark.java http://localhost:8081 200 30
+ * </pre>
+ */
+public class LoginBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        int loginThreads = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+
+        String email = "bench-" + UUID.randomUUID() + "@example.com";
+        String password = "bench-password";
+        HttpResponse<String> signup = post(client, baseUrl + "/api/auth/signup",
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\",\"name\":\"Benchmark\"}");
+        if (signup.statusCode() != 200) {
+            throw new IllegalStateException("Signup failed: " + signup.statusCode() + " " + signup.body());
+        }
+        String loginBody = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+
+        List<Long> baseline = measureHealth(client, baseUrl, Math.max(5, seconds / 3), new AtomicBoolean(true));
+        report("health, idle", baseline);
+
+        AtomicLong ok = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService storm = Executors.newFixedThreadPool(loginThreads);
+        for (int i = 0; i < loginThreads; i++) {
+            storm.submit(() -> {
+                while (running.get()) {
+                    try {
+                        int status = post(client, baseUrl + "/api/auth/login", loginBody).statusCode();
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                        } else if (status == 429) {
+                            shed.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        List<Long> underLoad = measureHealth(client, baseUrl, seconds, running);
+        running.set(false);
+        storm.shutdown();
+        storm.awaitTermination(30, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("logins: %d ok, %d shed (429), %d failed in %.1fs -> %.1f logins/sec%n",
+                ok.get(), shed.get(), failed.get(), elapsed, ok.get() / elapsed);
+        report("health, under login load", underLoad);
+        System.exit(0);
+    }
+
+    private static List<Long> measureHealth(HttpClient client, String baseUrl, int seconds, AtomicBoolean running) {
+        List<Long> latenciesMicros = new ArrayList<>();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(30)).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (running.get() && System.nanoTime() < deadline) {
+            long t0 = System.nanoTime();
+            try {
+                client.send(health, HttpResponse.BodyHandlers.discarding());
+                latenciesMicros.add((System.nanoTime() - t0) / 1000);
+            } catch (Exception e) {
+                latenciesMicros.add(TimeUnit.SECONDS.toMicros(30));
+            }
+        }
+        return latenciesMicros;
+    }
+
+    private static void report(String label, List<Long> latenciesMicros) {
+        if (latenciesMicros.isEmpty()) {
+            System.out.println(label + ": no samples");
+            return;
+        }
+        Collections.sort(latenciesMicros);
+        System.out.printf("%s: %d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", label, latenciesMicros.size(),
+                percentile(latenciesMicros, 0.50) / 1000.0, percentile(latenciesMicros, 0.99) / 1000.0,
+                latenciesMicros.get(latenciesMicros.size() - 1) / 1000.0);
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.floor(p * sorted.size())));
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,173 @@
+import com.supplychain.service.RouteNetwork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * In-process benchmark of the route planner's graph: snapshot build time and shortest-path
+ * latency on a synthetic network, against a straightforward object-graph Dijkstra
+ * (HashMap adjacency lists, PriorityQueue of boxed entries) as the baseline. Compile the
+ * server first, then run from the repository root:
+ *
+ * <pre>
+ * (cd server && mvn -q compile)
+ * java -cp server/target/classes server/benchmarks/RouteNetworkBenchmark.java [ports] [routes] [queries] [seed]
+ * java -cp server/target/classes server/benchmarks/RouteNetworkBenchmark.java 10000 60000 2000
+ * </pre>
+ *
+ * Every port gets a route to the next one so all pairs are connected; the rest are random.
+ * Both implementations answer the same queries and their totals are compared, so a wrong
+ * result fails the run instead of producing a fast number.
+ */
+public class RouteNetworkBenchmark {
+
+    private static final String[] MODES = {"Sea", "Air", "Rail", "Land"};
+
+    public static void main(String[] args) {
+        int ports = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int routes = args.length > 1 ? Integer.parseInt(args[1]) : ports * 6;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        Random random = new Random(seed);
+        List<RouteNetwork.Edge> edges = new ArrayList<>(routes);
+        for (int i = 0; i < routes; i++) {
+            int from = i < ports ? i : random.nextInt(ports);
+            int to = i < ports ? (i + 1) % ports : random.nextInt(ports);
+            edges.add(new RouteNetwork.Edge(i, "P" + from, "P" + to, MODES[random.nextInt(MODES.length)],
+                    10 + random.nextInt(990), 1 + random.nextInt(30), 50 + random.nextInt(5000)));
+        }
+        String[][] pairs = new String[queries][2];
+        for (int i = 0; i < queries; i++) {
+            pairs[i][0] = "P" + random.nextInt(ports);
+            pairs[i][1] = "P" + random.nextInt(ports);
+        }
+        System.out.printf("network: %d ports, %d routes; %d queries per run%n", ports, routes, queries);
+
+        int builds = 30;
+        long[] buildNanos = new long[builds / 2];
+        for (int i = 0; i < builds; i++) {
+            long started = System.nanoTime();
+            RouteNetwork.build(edges);
+            if (i >= builds - buildNanos.length) {  // the first half is JIT warm-up
+                buildNanos[i - (builds - buildNanos.length)] = System.nanoTime() - started;
+            }
+        }
+        RouteNetwork network = RouteNetwork.build(edges);
+        Arrays.sort(buildNanos);
+        System.out.printf("snapshot build: median %.1f ms (warm)%n", buildNanos[buildNanos.length / 2] / 1e6);
+
+        Baseline baseline = new Baseline(edges);
+        for (RouteNetwork.Metric metric : RouteNetwork.Metric.values()) {
+            verify(network, baseline, pairs, metric);
+        }
+        for (Set<String> modes : List.of(Set.<String>of(), Set.of("Sea", "Rail"))) {
+            String label = modes.isEmpty() ? "all modes" : "modes=" + String.join(",", modes);
+            for (int round = 0; round < 2; round++) {  // first round is warm-up
+                boolean report = round == 1;
+                run("csr      cost, " + label, pairs, report, (from, to) -> total(network.shortestPath(from, to, RouteNetwork.Metric.COST, modes)));
+                run("baseline cost, " + label, pairs, report, (from, to) -> baseline.cost(from, to, modes));
+            }
+        }
+    }
+
+    private interface Query {
+        double run(String from, String to);
+    }
+
+    private static void run(String label, String[][] pairs, boolean report, Query query) {
+        long[] nanos = new long[pairs.length];
+        long started = System.nanoTime();
+        double checksum = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            long t = System.nanoTime();
+            checksum += query.run(pairs[i][0], pairs[i][1]);
+            nanos[i] = System.nanoTime() - t;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (report) {
+            Arrays.sort(nanos);
+            System.out.printf("%-36s %8.0f queries/s  p50 %7.3f ms  p99 %7.3f ms  (checksum %.0f)%n", label,
+                    pairs.length / (elapsed / 1e9), nanos[nanos.length / 2] / 1e6,
+                    nanos[(int) (nanos.length * 0.99)] / 1e6, checksum);
+        }
+    }
+
+    private static void verify(RouteNetwork network, Baseline baseline, String[][] pairs, RouteNetwork.Metric metric) {
+        for (int i = 0; i < Math.min(200, pairs.length); i++) {
+            double fast = total(network.shortestPath(pairs[i][0], pairs[i][1], metric, null), metric);
+            double slow = baseline.shortest(pairs[i][0], pairs[i][1], metric, Set.of());
+            if (Math.abs(fast - slow) > 1e-6) {
+                throw new IllegalStateException(metric + " " + pairs[i][0] + "->" + pairs[i][1] + ": " + fast + " != " + slow);
+            }
+        }
+    }
+
+    private static double total(RouteNetwork.Path path) {
+        return total(path, RouteNetwork.Metric.COST);
+    }
+
+    private static double total(RouteNetwork.Path path, RouteNetwork.Metric metric) {
+        if (path == null) {
+            return -1;
+        }
+        return path.edges().stream().mapToDouble(e -> weight(e, metric)).sum();
+    }
+
+    private static double weight(RouteNetwork.Edge e, RouteNetwork.Metric metric) {
+        return switch (metric) {
+            case COST -> e.cost();
+            case DURATION -> e.duration();
+            case DISTANCE -> e.distance();
+        };
+    }
+
+    /** Textbook Dijkstra over boxed adjacency lists keyed by port name. */
+    private static final class Baseline {
+        private final Map<String, List<RouteNetwork.Edge>> adjacency = new HashMap<>();
+
+        Baseline(List<RouteNetwork.Edge> edges) {
+            for (RouteNetwork.Edge e : edges) {
+                adjacency.computeIfAbsent(e.originPort(), k -> new ArrayList<>()).add(e);
+            }
+        }
+
+        double cost(String from, String to, Set<String> modes) {
+            return shortest(from, to, RouteNetwork.Metric.COST, modes);
+        }
+
+        double shortest(String from, String to, RouteNetwork.Metric metric, Set<String> modes) {
+            Map<String, Double> dist = new HashMap<>();
+            PriorityQueue<Map.Entry<String, Double>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+            dist.put(from, 0.0);
+            queue.add(Map.entry(from, 0.0));
+            while (!queue.isEmpty()) {
+                Map.Entry<String, Double> head = queue.poll();
+                String port = head.getKey();
+                if (head.getValue() > dist.get(port)) {
+                    continue;
+                }
+                if (port.equals(to)) {
+                    return head.getValue();
+                }
+                for (RouteNetwork.Edge e : adjacency.getOrDefault(port, List.of())) {
+                    if (!modes.isEmpty() && !modes.contains(e.transportationMode())) {
+                        continue;
+                    }
+                    double candidate = head.getValue() + weight(e, metric);
+                    if (candidate < dist.getOrDefault(e.destinationPort(), Double.POSITIVE_INFINITY)) {
+                        dist.put(e.destinationPort(), candidate);
+                        queue.add(Map.entry(e.destinationPort(), candidate));
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.supplychain;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The main entry point for the Supply Chain Management System application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class SupplyChainApplication {
 
     public static void main(String[] args) {
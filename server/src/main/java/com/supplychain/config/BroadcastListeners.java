@@ -0,0 +1,150 @@
+package com.supplychain.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka listeners that every instance must see in full, such as cache eviction and in-memory
+ * indexes. Each is assigned every partition of its topics and starts at the end, with no consumer
+ * group: nothing is committed, and no group is left behind on the broker when an instance stops.
+ * <p>
+ * Partitions are looked up when the listeners start, on a background thread that retries until
+ * the broker answers and every topic exists, so startup does not wait for Kafka. Partitions added
+ * to a topic later are picked up on restart.
+ */
+@Component
+public class BroadcastListeners implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastListeners.class);
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+    private static final long RETRY_MS = 10_000;
+
+    private final DefaultKafkaConsumerFactory<String, byte[]> consumerFactory;
+    private final boolean autoStartup;
+    private final boolean virtualThreads;
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final List<KafkaMessageListenerContainer<String, byte[]>> containers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService starter;
+    private volatile boolean running;
+
+    public BroadcastListeners(KafkaProperties kafkaProperties, MeterRegistry meterRegistry, Environment environment) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        this.consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        this.autoStartup = kafkaProperties.getListener().isAutoStartup();
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /** Adds a batch listener for {@code topics}; call before the context starts, e.g. from a constructor. */
+    public void register(String name, BatchMessageListener<String, byte[]> listener, String... topics) {
+        registrations.add(new Registration(name, listener, topics));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        starter = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "broadcast-listener-start"));
+        List<Registration> pending = new ArrayList<>(registrations);
+        starter.execute(() -> startPending(pending));
+    }
+
+    private void startPending(List<Registration> pending) {
+        pending.removeIf(this::tryStart);
+        if (!pending.isEmpty() && running) {
+            starter.schedule(() -> startPending(pending), RETRY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean tryStart(Registration registration) {
+        List<TopicPartitionOffset> partitions = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            for (String topic : registration.topics) {
+                List<PartitionInfo> infos = consumer.partitionsFor(topic, LOOKUP_TIMEOUT);
+                if (infos == null || infos.isEmpty()) {
+                    log.debug("Topic {} has no partitions yet; {} will retry", topic, registration.name);
+                    return false;
+                }
+                for (PartitionInfo info : infos) {
+                    partitions.add(new TopicPartitionOffset(topic, info.partition(), TopicPartitionOffset.SeekPosition.END));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not look up partitions for {}; retrying in {} ms: {}", registration.name, RETRY_MS, e.getMessage());
+            return false;
+        }
+
+        ContainerProperties containerProperties = new ContainerProperties(partitions.toArray(new TopicPartitionOffset[0]));
+        containerProperties.setMessageListener(registration.listener);
+        // No group to commit to; the position only matters while this instance runs
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+        if (virtualThreads) {
+            containerProperties.setListenerTaskExecutor(new VirtualThreadTaskExecutor(registration.name + "-"));
+        }
+        KafkaMessageListenerContainer<String, byte[]> container = new KafkaMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.setBeanName(registration.name);
+        container.start();
+        containers.add(container);
+        log.info("{} listening to {} partitions of {}", registration.name, partitions.size(), String.join(", ", registration.topics));
+        return true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (starter != null) {
+            starter.shutdownNow();
+            try {
+                starter.awaitTermination(LOOKUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        containers.forEach(KafkaMessageListenerContainer::stop);
+        containers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    private record Registration(String name, BatchMessageListener<String, byte[]> listener, String[] topics) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.supplychain.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.supplychain.model.Route;
+import com.supplychain.model.Vendor;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the reference tables. Route and Vendor rows, and the results
+ * of their list queries, are kept in bounded in-process Caffeine regions, so lazy shipment references
+ * and the route/vendor endpoints stop going to Postgres for rows that rarely change. Changes made
+ * on other instances are evicted by {@link com.supplychain.service.ReferenceCacheInvalidator};
+ * the TTL is only a backstop for an invalidation that never arrives.
+ * <p>
+ * Statistics are enabled so Micrometer publishes {@code hibernate.second.level.cache.requests}
+ * and {@code hibernate.query.cache.requests} with hit/miss tags per region.
+ */
+@Configuration
+public class CacheConfig {
+
+    /** Query cache region for the route and vendor list queries. */
+    public static final String REFERENCE_LISTS_REGION = "reference-lists";
+
+    // Hibernate's region of table modification times; must outlive any cached query result
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceCacheManager(@Value("${cache.reference.max-entries:10000}") long maxEntries,
+                                              @Value("${cache.reference.ttl-seconds:600}") long ttlSeconds) {
+        // A manager of its own rather than the provider's JVM-wide default, which a second application
+        // context (a devtools restart, another test context) would find already holding these caches
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("reference-cache:" + UUID.randomUUID()),
+                provider.getDefaultClassLoader());
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+        bounded.setMaximumSize(OptionalLong.of(maxEntries));
+        bounded.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        for (String region : new String[] {Route.class.getName(), Vendor.class.getName(), REFERENCE_LISTS_REGION,
+                DEFAULT_QUERY_RESULTS_REGION}) {
+            cacheManager.createCache(region, bounded);
+        }
+        // One entry per table, never expired, so a cached list is never trusted past a write
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager referenceCacheManager) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+}
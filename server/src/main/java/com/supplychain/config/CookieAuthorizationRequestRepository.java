@@ -0,0 +1,101 @@
+package com.supplychain.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplychain.service.TokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import java.time.Duration;
+
+/**
+ * Keeps the pending OAuth2 authorization request in a signed, short-lived cookie instead of the
+ * HTTP session, so in stateless mode the Google callback can land on any instance. The cookie
+ * holds the request as JSON inside a token signed by {@link TokenService}; a tampered or expired
+ * cookie is treated as absent and the login fails as if no request had been started.
+ */
+class CookieAuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    private static final String COOKIE_NAME = "oauth2_auth_request";
+    private static final Duration COOKIE_TTL = Duration.ofMinutes(5);
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    CookieAuthorizationRequestRepository(TokenService tokenService) {
+        this.tokenService = tokenService;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String value = readCookie(request);
+        if (value == null) {
+            return null;
+        }
+        return tokenService.verifyOAuth2Request(value)
+                .map(json -> {
+                    try {
+                        return objectMapper.readValue(json, OAuth2AuthorizationRequest.class);
+                    } catch (JsonProcessingException e) {
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(request, response, "", Duration.ZERO);
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(authorizationRequest);
+            writeCookie(request, response, tokenService.signOAuth2Request(json, COOKIE_TTL), COOKIE_TTL);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize OAuth2 authorization request", e);
+        }
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            writeCookie(request, response, "", Duration.ZERO);
+        }
+        return authorizationRequest;
+    }
+
+    private static String readCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        // Lax still sends the cookie on Google's top-level redirect back to /login/oauth2/code/google
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.supplychain.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaConfig {
+
+    // Event envelopes are binary, so values are raw bytes whatever spring.kafka.producer.* says;
+    // keys are the entity ids
+    @Bean
+    public KafkaTemplate<String, byte[]> eventKafkaTemplate(KafkaProperties kafkaProperties, MeterRegistry meterRegistry) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        // Throughput defaults for the outbox relay, which sends whole batches at once; any of
+        // these can be overridden with spring.kafka.producer.* properties
+        props.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, 20);
+        props.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        props.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        // Idempotence keeps per-partition order across retries
+        props.putIfAbsent(ProducerConfig.ACKS_CONFIG, "all");
+        props.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Fail fast instead of stalling the relay for a minute when the broker is unreachable
+        props.putIfAbsent(ProducerConfig.MAX_BLOCK_MS_CONFIG, 2000);
+
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(props);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return new KafkaTemplate<>(factory);
+    }
+
+    /**
+     * Batch listener containers for the event topics. Each of the {@code concurrency} consumers
+     * owns a share of the partitions. Consumer metrics, including
+     * {@code kafka.consumer.fetch.manager.records.lag.max}, are bound to Micrometer. With
+     * {@code spring.threads.virtual.enabled} on Java 21 the consumers run on virtual threads, as
+     * Boot already arranges for its own default container factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> eventListenerContainerFactory(
+            KafkaProperties kafkaProperties,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${events.consumer.concurrency:3}") int concurrency,
+            @Value("${events.consumer.max-poll-records:500}") int maxPollRecords) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.putIfAbsent(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        DefaultKafkaConsumerFactory<String, byte[]> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setAutoStartup(kafkaProperties.getListener().isAutoStartup());
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("event-listener-"));
+        }
+        return factory;
+    }
+}
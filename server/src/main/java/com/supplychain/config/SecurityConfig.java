@@ -1,14 +1,22 @@
 package com.supplychain.config;
 
+import com.supplychain.dto.TokenResponse;
 import com.supplychain.model.User;
 import com.supplychain.repository.UserRepository;
+import com.supplychain.service.TokenService;
+import com.supplychain.service.UserCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.web.cors.CorsConfiguration;
@@ -16,16 +24,27 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Optional;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String AUTH_CALLBACK_URL = "http://localhost:5173/auth/callback";
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TokenService tokenService;
+    // Stateless mode: bearer tokens instead of the HTTP session, so any instance can serve any request
+    private final boolean tokensEnabled;
 
-    public SecurityConfig(UserRepository userRepository) {
+    public SecurityConfig(UserRepository userRepository, UserCache userCache, TokenService tokenService,
+                          @Value("${auth.tokens.enabled:false}") boolean tokensEnabled) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.tokenService = tokenService;
+        this.tokensEnabled = tokensEnabled;
     }
 
     @Bean
@@ -44,17 +63,23 @@ public class SecurityConfig {
                     "/login/**",
                     "/oauth2/**",
                     "/ws/**",
+                    "/actuator/health",
                     "/error"
                 ).permitAll()
                 // All authenticated users can access all API endpoints (shared data)
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().authenticated()
             )
-            .oauth2Login(oauth2 -> oauth2
-                .loginPage("http://localhost:5173/login")
-                .defaultSuccessUrl("http://localhost:5173/auth/callback", true)
-                .successHandler(oAuth2AuthenticationSuccessHandler())
-            )
+            .oauth2Login(oauth2 -> {
+                oauth2
+                    .loginPage("http://localhost:5173/login")
+                    .defaultSuccessUrl(AUTH_CALLBACK_URL, true)
+                    .successHandler(oAuth2AuthenticationSuccessHandler());
+                if (tokensEnabled) {
+                    oauth2.authorizationEndpoint(endpoint -> endpoint
+                        .authorizationRequestRepository(new CookieAuthorizationRequestRepository(tokenService)));
+                }
+            })
             .logout(logout -> logout
                 .logoutUrl("/api/auth/logout")
                 .logoutSuccessUrl("http://localhost:5173/login")
@@ -62,51 +87,96 @@ public class SecurityConfig {
                 .invalidateHttpSession(true)
                 .clearAuthentication(true)
                 .permitAll()
-            )
-            .sessionManagement(session -> session
-                .maximumSessions(1)
-                .maxSessionsPreventsLogin(false)
             );
 
+        if (tokensEnabled) {
+            http
+                .oauth2ResourceServer(resourceServer -> resourceServer
+                    .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                )
+                .sessionManagement(session -> session
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+        } else {
+            http
+                .sessionManagement(session -> session
+                    .maximumSessions(1)
+                    .maxSessionsPreventsLogin(false)
+                );
+        }
+
         return http.build();
     }
 
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        return tokenService.accessTokenDecoder();
+    }
+
+    private JwtAuthenticationConverter jwtAuthenticationConverter() {
+        // "role": "OPERATOR" -> ROLE_OPERATOR, matching what a session login would grant
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName("role");
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
     @Bean
     public AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler() {
         return (request, response, authentication) -> {
-            OAuth2User oAuth2User = (OAuth2User) authentication.getPrincipal();
-            
-            String email = oAuth2User.getAttribute("email");
-            String name = oAuth2User.getAttribute("name");
-            String picture = oAuth2User.getAttribute("picture");
-            String googleId = oAuth2User.getAttribute("sub");
-
-            // Check if user exists
-            Optional<User> existingUser = userRepository.findByProviderAndProviderId("google", googleId);
-            
-            if (existingUser.isEmpty()) {
-                // Create new user
-                User newUser = new User();
-                newUser.setEmail(email);
-                newUser.setName(name);
-                newUser.setPicture(picture);
-                newUser.setProvider("google");
-                newUser.setProviderId(googleId);
-                newUser.setRole("OPERATOR");
-                newUser.setIsActive(true);
-                userRepository.save(newUser);
-            } else {
-                // Update existing user info
-                User user = existingUser.get();
-                user.setName(name);
-                user.setPicture(picture);
-                userRepository.save(user);
-            }
+            User user = syncGoogleUser((OAuth2User) authentication.getPrincipal());
 
-            response.sendRedirect("http://localhost:5173/auth/callback");
+            if (tokensEnabled) {
+                // The fragment never reaches a server or its logs; AuthCallback reads it in the browser
+                TokenResponse tokens = tokenService.issue(user);
+                response.sendRedirect(AUTH_CALLBACK_URL + "#access_token=" + tokens.getAccessToken() +
+                        "&refresh_token=" + tokens.getRefreshToken() + "&expires_in=" + tokens.getExpiresIn());
+                return;
+            }
+            response.sendRedirect(AUTH_CALLBACK_URL);
         };
     }
 
+    private User syncGoogleUser(OAuth2User oAuth2User) {
+        String email = oAuth2User.getAttribute("email");
+        String name = oAuth2User.getAttribute("name");
+        String picture = oAuth2User.getAttribute("picture");
+        String googleId = oAuth2User.getAttribute("sub");
+
+        // Repeat logins with an unchanged profile need neither the lookup nor the save
+        Optional<User> cached = userCache.findByEmail(email);
+        if (cached.isPresent() && "google".equals(cached.get().getProvider())
+                && Objects.equals(googleId, cached.get().getProviderId())
+                && Objects.equals(name, cached.get().getName())
+                && Objects.equals(picture, cached.get().getPicture())) {
+            return cached.get();
+        }
+
+        // Check if user exists
+        Optional<User> existingUser = userRepository.findByProviderAndProviderId("google", googleId);
+
+        if (existingUser.isEmpty()) {
+            // Create new user
+            User newUser = new User();
+            newUser.setEmail(email);
+            newUser.setName(name);
+            newUser.setPicture(picture);
+            newUser.setProvider("google");
+            newUser.setProviderId(googleId);
+            newUser.setRole("OPERATOR");
+            newUser.setIsActive(true);
+            return userCache.save(newUser);
+        } else {
+            // Update existing user info
+            User user = existingUser.get();
+            user.setName(name);
+            user.setPicture(picture);
+            return userCache.save(user);
+        }
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,76 @@
+package com.supplychain.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares while serving each API request and publishes them
+ * as {@code http.server.sql.statements} with the request's method and route pattern. A list
+ * endpoint whose count grows with the number of rows has an N+1 somewhere; the expected counts
+ * are one select per list (plus the version-stamp query that backs its ETag).
+ * <p>
+ * Only statements run on the request thread are counted; work handed to another executor is not.
+ */
+@Component
+public class SqlStatementMetrics implements StatementInspector, AsyncHandlerInterceptor, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        COUNT.set(new int[1]);
+        return true;
+    }
+
+    // An async request is recorded once, on the dispatch that completes it
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        COUNT.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        if (count == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements prepared per API request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(count[0]);
+    }
+}
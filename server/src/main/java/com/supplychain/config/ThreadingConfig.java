@@ -0,0 +1,43 @@
+package com.supplychain.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which threading mode the server came up in. With {@code spring.threads.virtual.enabled}
+ * on Java 21, Boot runs Tomcat requests, {@code @Scheduled} jobs, MVC async work and Kafka
+ * listeners on virtual threads ({@code eventListenerContainerFactory} opts in in KafkaConfig).
+ * On an older runtime the property is silently ignored, so that case is logged here.
+ * <p>
+ * Two pools stay on platform threads on purpose: password hashing is CPU-bound and its pool
+ * size is the admission limit, and the WebSocket dispatch lanes rely on one thread per lane
+ * for ordering. Code that blocks (JDBC, Kafka sends) must not do so inside {@code synchronized},
+ * which pins the carrier thread; use a {@link java.util.concurrent.locks.ReentrantLock}.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final Environment environment;
+
+    public ThreadingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request handling, scheduling and Kafka listeners run on virtual threads");
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.supplychain.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    public WebConfig(SqlStatementMetrics sqlStatementMetrics) {
+        this.sqlStatementMetrics = sqlStatementMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // API responses may be kept by the browser but must be revalidated with If-None-Match on
+        // every use. Setting Cache-Control here also stops Spring Security from adding no-store,
+        // which would keep the browser from ever sending the ETag back.
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.addCacheMapping(CacheControl.noCache().cachePrivate(), "/api/**");
+        registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(sqlStatementMetrics).addPathPatterns("/api/**");
+    }
+}
@@ -12,8 +12,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple memory-based message broker to send messages to clients
-        config.enableSimpleBroker("/topic");
+        // Enable a simple memory-based message broker to send messages to clients.
+        // Subscriptions may carry a "selector" header (e.g. headers.status == 'Delayed') that is
+        // evaluated against the routing headers of each event, see EventRoutes
+        config.enableSimpleBroker("/topic")
+                .setSelectorHeaderName("selector");
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -1,18 +1,33 @@
 package com.supplychain.controller;
 
+import com.supplychain.dto.TokenResponse;
 import com.supplychain.model.User;
 import com.supplychain.service.AuthService;
+import com.supplychain.service.TokenService;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -20,9 +35,14 @@ import java.util.Optional;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenService tokenService;
+    private final boolean tokensEnabled;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, TokenService tokenService,
+                          @Value("${auth.tokens.enabled:false}") boolean tokensEnabled) {
         this.authService = authService;
+        this.tokenService = tokenService;
+        this.tokensEnabled = tokensEnabled;
     }
 
     @PostMapping("/signup")
@@ -47,6 +67,8 @@ public class AuthController {
             response.put("user", createUserResponse(user));
             
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", e.getMessage());
@@ -54,68 +76,138 @@ public class AuthController {
         }
     }
 
+    /**
+     * The password check runs on the hashing executor, so the Tomcat thread is released while
+     * BCrypt works. When the hashing queue is full the login is shed with 429 and Retry-After.
+     * In stateless mode ({@code auth.tokens.enabled}) the response carries {@code tokens} and no
+     * session is created.
+     * <p>
+     * The hashing thread only computes the match. Building the response, and in session mode
+     * creating the session, happens on a container thread via {@link AsyncContext#start}, once
+     * async processing has started: the servlet request is not thread-safe.
+     */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(
             @RequestBody Map<String, String> request,
             HttpServletRequest httpRequest) {
         Map<String, Object> response = new HashMap<>();
-        
-        try {
-            String email = request.get("email");
-            String password = request.get("password");
 
-            if (email == null || password == null) {
-                response.put("success", false);
-                response.put("message", "Email and password are required");
-                return ResponseEntity.badRequest().body(response);
-            }
+        String email = request.get("email");
+        String password = request.get("password");
 
-            Optional<User> userOpt = authService.authenticateUser(email, password);
-            
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                
-                // Create Spring Security Authentication
-                org.springframework.security.core.userdetails.User principal = 
-                    new org.springframework.security.core.userdetails.User(
-                        user.getEmail(), 
-                        user.getPassword(), 
-                        java.util.Collections.emptyList()
-                    );
-                
-                org.springframework.security.authentication.UsernamePasswordAuthenticationToken authentication = 
-                    new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                        principal, 
-                        null, 
-                        java.util.Collections.emptyList()
-                    );
-                
-                // Set authentication in SecurityContext
-                org.springframework.security.core.context.SecurityContextHolder.getContext()
-                    .setAuthentication(authentication);
-                
-                // Create session and store SecurityContext
-                HttpSession session = httpRequest.getSession(true);
-                session.setAttribute("SPRING_SECURITY_CONTEXT", 
-                    org.springframework.security.core.context.SecurityContextHolder.getContext());
-                session.setAttribute("userId", user.getId());
-                session.setAttribute("userEmail", user.getEmail());
-                
-                response.put("success", true);
-                response.put("message", "Login successful");
-                response.put("user", createUserResponse(user));
-                
-                return ResponseEntity.ok(response);
-            } else {
-                response.put("success", false);
-                response.put("message", "Invalid email or password");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
-        } catch (Exception e) {
+        if (email == null || password == null) {
             response.put("success", false);
-            response.put("message", "Login failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            response.put("message", "Email and password are required");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
         }
+
+        CompletableFuture<AsyncContext> asyncStarted = asyncStarted(httpRequest);
+        return authService.authenticateUser(email, password)
+                .thenCombine(asyncStarted, LoginMatch::new)
+                .thenCompose(match -> CompletableFuture.supplyAsync(
+                        () -> loginResponse(match.user(), httpRequest, response), match.asyncContext()::start))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof RejectedExecutionException) {
+                        return tooManyRequests(response);
+                    }
+                    response.put("success", false);
+                    response.put("message", "Login failed: " + cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+                });
+    }
+
+    private record LoginMatch(Optional<User> user, AsyncContext asyncContext) {
+    }
+
+    /** Completes on the container thread that started async processing for this request. */
+    private static CompletableFuture<AsyncContext> asyncStarted(HttpServletRequest httpRequest) {
+        CompletableFuture<AsyncContext> started = new CompletableFuture<>();
+        WebAsyncUtils.getAsyncManager(httpRequest).registerDeferredResultInterceptor(AsyncContext.class,
+                new DeferredResultProcessingInterceptor() {
+                    @Override
+                    public <T> void preProcess(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                        started.complete(request.getNativeRequest(HttpServletRequest.class).getAsyncContext());
+                    }
+                });
+        return started;
+    }
+
+    // Runs on a container thread
+    private ResponseEntity<Map<String, Object>> loginResponse(Optional<User> userOpt, HttpServletRequest httpRequest,
+                                                              Map<String, Object> response) {
+        if (userOpt.isPresent() && tokensEnabled) {
+            response.put("success", true);
+            response.put("message", "Login successful");
+            response.put("user", createUserResponse(userOpt.get()));
+            response.put("tokens", tokenService.issue(userOpt.get()));
+            return ResponseEntity.ok(response);
+        } else if (userOpt.isPresent()) {
+            User user = userOpt.get();
+
+            // Create Spring Security Authentication
+            org.springframework.security.core.userdetails.User principal =
+                new org.springframework.security.core.userdetails.User(
+                    user.getEmail(),
+                    user.getPassword(),
+                    java.util.Collections.emptyList()
+                );
+
+            org.springframework.security.authentication.UsernamePasswordAuthenticationToken authentication =
+                new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    java.util.Collections.emptyList()
+                );
+
+            // Built as a fresh context: this thread's SecurityContextHolder must not keep the user
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+
+            // Create session and store SecurityContext
+            HttpSession session = httpRequest.getSession(true);
+            session.setAttribute("SPRING_SECURITY_CONTEXT", context);
+            session.setAttribute("userId", user.getId());
+            session.setAttribute("userEmail", user.getEmail());
+
+            response.put("success", true);
+            response.put("message", "Login successful");
+            response.put("user", createUserResponse(user));
+
+            return ResponseEntity.ok(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "Invalid email or password");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+    }
+
+    /** Trades a refresh token for a new token pair (stateless mode only). */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!tokensEnabled) {
+            response.put("success", false);
+            response.put("message", "Token authentication is not enabled");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null) {
+            response.put("success", false);
+            response.put("message", "refreshToken is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Optional<TokenResponse> tokens = tokenService.refresh(refreshToken);
+        if (tokens.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Invalid or expired refresh token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        response.put("success", true);
+        response.put("tokens", tokens.get());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/user")
@@ -127,6 +219,13 @@ public class AuthController {
         try {
             if (authentication != null && authentication.isAuthenticated()) {
                 Object principal = authentication.getPrincipal();
+
+                // Bearer token: the claims are the user, no lookup needed
+                if (principal instanceof Jwt jwt) {
+                    response.put("success", true);
+                    response.put("user", createUserResponse(jwt));
+                    return ResponseEntity.ok(response);
+                }
                 
                 // OAuth2 User
                 if (principal instanceof OAuth2User) {
@@ -185,6 +284,25 @@ public class AuthController {
         }
     }
 
+    private Map<String, Object> createUserResponse(Jwt jwt) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("id", jwt.getClaim("uid"));
+        userMap.put("email", jwt.getSubject());
+        userMap.put("name", jwt.getClaimAsString("name"));
+        userMap.put("picture", jwt.getClaimAsString("picture"));
+        userMap.put("provider", jwt.getClaimAsString("provider"));
+        userMap.put("role", jwt.getClaimAsString("role"));
+        return userMap;
+    }
+
+    private ResponseEntity<Map<String, Object>> tooManyRequests(Map<String, Object> response) {
+        response.put("success", false);
+        response.put("message", "Too many login attempts in progress, please retry shortly");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     private Map<String, Object> createUserResponse(User user) {
         Map<String, Object> userMap = new HashMap<>();
         userMap.put("id", user.getId());
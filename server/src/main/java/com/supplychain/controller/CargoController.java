@@ -1,39 +1,102 @@
 package com.supplychain.controller;
 
+import com.supplychain.dto.BulkImportResult;
 import com.supplychain.dto.CargoCreateRequest;
+import com.supplychain.dto.CargoFilter;
+import com.supplychain.dto.CargoView;
+import com.supplychain.dto.ConsolidationPlan;
+import com.supplychain.dto.ConsolidationRequest;
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
 import com.supplychain.model.Cargo;
 import com.supplychain.model.Shipment;
 import com.supplychain.repository.CargoRepository;
 import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.service.CargoConsolidationService;
+import com.supplychain.service.CargoIngestionService;
+import com.supplychain.service.EntityTagService;
 import com.supplychain.service.KafkaProducerService;
+import com.supplychain.service.ShipmentManifestService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/cargo")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"}) // Allow frontend access
 public class CargoController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final CargoRepository cargoRepository;
     private final ShipmentRepository shipmentRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final CargoIngestionService cargoIngestionService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityTagService entityTagService;
+    private final ShipmentManifestService shipmentManifestService;
+    private final CargoConsolidationService cargoConsolidationService;
 
     @Autowired
-    public CargoController(CargoRepository cargoRepository, ShipmentRepository shipmentRepository, KafkaProducerService kafkaProducerService) {
+    public CargoController(CargoRepository cargoRepository, ShipmentRepository shipmentRepository, KafkaProducerService kafkaProducerService,
+                           CargoIngestionService cargoIngestionService, TransactionTemplate transactionTemplate,
+                           EntityTagService entityTagService, ShipmentManifestService shipmentManifestService,
+                           CargoConsolidationService cargoConsolidationService) {
         this.cargoRepository = cargoRepository;
         this.shipmentRepository = shipmentRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.cargoIngestionService = cargoIngestionService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityTagService = entityTagService;
+        this.shipmentManifestService = shipmentManifestService;
+        this.cargoConsolidationService = cargoConsolidationService;
     }
 
     @GetMapping
-    public List<Cargo> getAllCargo() {
-        return cargoRepository.findAll();
+    public List<CargoView> getAllCargo(WebRequest request) {
+        // 304 from the version stamps alone, before any cargo is loaded
+        if (request.checkNotModified(entityTagService.cargoList())) {
+            return null;
+        }
+        return cargoRepository.findAllWithShipment().stream().map(CargoView::of).toList();
+    }
+
+    /**
+     * Keyset-paginated cargo list, newest first. Pass the returned nextCursor back as
+     * {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<CargoView>> getCargoPage(CargoFilter filter,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int limit,
+                                                              WebRequest request) {
+        try {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (request.checkNotModified(entityTagService.cargoList())) {
+                return null;
+            }
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(cargoRepository.findPage(filter, after, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Error fetching cargo page: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
     @PostMapping(consumes = "application/json", produces = "application/json")
@@ -57,13 +120,18 @@ public class CargoController {
                 cargo.setShipment(shipment);
             }
             
-            Cargo savedCargo = cargoRepository.save(cargo);
-            String message = "Cargo created: ID=" + savedCargo.getCargoId() + 
-                           ", Type=" + savedCargo.getType() + 
-                           ", Weight=" + savedCargo.getWeight() + "kg" + 
-                           ", Value=$" + savedCargo.getValue();
-            kafkaProducerService.sendMessage("cargo-events", message);
-            return ResponseEntity.ok(savedCargo);
+            Cargo savedCargo = transactionTemplate.execute(tx -> {
+                Cargo saved = cargoRepository.save(cargo);
+                shipmentManifestService.added(saved);
+                String message = "Cargo created: ID=" + saved.getCargoId() + 
+                               ", Type=" + saved.getType() + 
+                               ", Weight=" + saved.getWeight() + "kg" + 
+                               ", Value=$" + saved.getValue();
+                kafkaProducerService.publish(DomainEvent.created(EntityType.CARGO, saved.getCargoId(),
+                        EntitySnapshots.of(saved), message));
+                return saved;
+            });
+            return ResponseEntity.ok(CargoView.of(savedCargo));
         } catch (Exception e) {
             System.err.println("Error creating cargo: " + e.getMessage());
             e.printStackTrace();
@@ -71,11 +139,85 @@ public class CargoController {
         }
     }
 
+    /**
+     * Bulk-creates cargo from a JSON array of cargo objects or from CSV with a header row.
+     * The body is read as a stream. Valid rows are inserted and invalid rows are reported
+     * with their position, so one bad row does not reject the whole manifest.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportResult> bulkCreateCargo(HttpServletRequest request) throws IOException {
+        BulkImportResult result = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? cargoIngestionService.ingestJson(request.getInputStream())
+                : cargoIngestionService.ingestCsv(request.getInputStream());
+        System.out.println("Bulk cargo import: " + result.getInserted() + " inserted, " + result.getFailed() +
+                " failed, " + Math.round(result.getRowsPerSecond()) + " rows/sec");
+        if (result.getFatalError() != null && result.getInserted() == 0) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Packs unassigned cargo into shipments for one origin/destination lane under per-shipment
+     * weight and volume caps, topping up open shipments on the lane first. Nothing is written;
+     * post the returned plan to {@code /consolidation/commit} to apply it.
+     */
+    @PostMapping("/consolidation/plan")
+    public ResponseEntity<?> planConsolidation(@RequestBody ConsolidationRequest request) {
+        try {
+            return ResponseEntity.ok(cargoConsolidationService.plan(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("Error planning cargo consolidation: " + e.getMessage());
+            e.printStackTrace();
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error planning cargo consolidation: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Applies a consolidation plan in one transaction. A plan that no longer matches the data
+     * (cargo assigned since, a shipment closed or over a cap) is rejected whole with 409.
+     */
+    @PostMapping("/consolidation/commit")
+    public ResponseEntity<?> commitConsolidation(@RequestBody ConsolidationPlan plan) {
+        try {
+            return ResponseEntity.ok(cargoConsolidationService.commit(plan));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("Error committing cargo consolidation: " + e.getMessage());
+            e.printStackTrace();
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error committing cargo consolidation: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Cargo> getCargoById(@PathVariable Long id) {
-        Cargo cargo = cargoRepository.findById(id)
+    public ResponseEntity<CargoView> getCargoById(@PathVariable Long id, WebRequest request) {
+        String etag = entityTagService.cargo(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        Cargo cargo = cargoRepository.findWithShipmentByCargoId(id)
                 .orElseThrow(() -> new RuntimeException("Cargo not found with id: " + id));
-        return ResponseEntity.ok(cargo);
+        return ResponseEntity.ok(CargoView.of(cargo));
     }
 
     @PutMapping("/{id}")
@@ -83,6 +225,8 @@ public class CargoController {
         try {
             Cargo cargo = cargoRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Cargo not found with id: " + id));
+            Map<String, Object> before = EntitySnapshots.of(cargo);
+            ShipmentManifestService.Contribution contributionBefore = ShipmentManifestService.Contribution.of(cargo);
 
             // Update all fields
             cargo.setType(request.getType());
@@ -101,10 +245,15 @@ public class CargoController {
                 cargo.setShipment(null);
             }
 
-            final Cargo updatedCargo = cargoRepository.save(cargo);
-            String message = "Cargo updated: ID=" + id + ", Type=" + updatedCargo.getType();
-            kafkaProducerService.sendMessage("cargo-events", message);
-            return ResponseEntity.ok(updatedCargo);
+            final Cargo updatedCargo = transactionTemplate.execute(tx -> {
+                Cargo saved = cargoRepository.save(cargo);
+                shipmentManifestService.changed(contributionBefore, saved);
+                String message = "Cargo updated: ID=" + id + ", Type=" + saved.getType();
+                kafkaProducerService.publish(DomainEvent.updated(EntityType.CARGO, id, before,
+                        EntitySnapshots.of(saved), message));
+                return saved;
+            });
+            return ResponseEntity.ok(CargoView.of(updatedCargo));
         } catch (Exception e) {
             System.err.println("Error updating cargo: " + e.getMessage());
             e.printStackTrace();
@@ -115,18 +264,24 @@ public class CargoController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteCargo(@PathVariable Long id) {
         try {
-            if (!cargoRepository.existsById(id)) {
+            Optional<Cargo> existingCargo = cargoRepository.findById(id);
+            if (existingCargo.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Cargo not found with ID: " + id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
+            Map<String, Object> before = EntitySnapshots.of(existingCargo.get());
+            ShipmentManifestService.Contribution contribution = ShipmentManifestService.Contribution.of(existingCargo.get());
 
-            cargoRepository.deleteById(id);
+            transactionTemplate.executeWithoutResult(tx -> {
+                cargoRepository.delete(existingCargo.get());
+                shipmentManifestService.removed(contribution);
 
-            // Publish to Kafka
-            String message = "Cargo deleted: ID=" + id;
-            kafkaProducerService.sendMessage("cargo-events", message);
+                // Publish to Kafka
+                String message = "Cargo deleted: ID=" + id;
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.CARGO, id, before, message));
+            });
 
             // Return success response with JSON body
             Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,25 @@
+package com.supplychain.controller;
+
+import com.supplychain.dto.DashboardSummary;
+import com.supplychain.service.DashboardSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class DashboardController {
+
+    private final DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    public DashboardController(DashboardSummaryService dashboardSummaryService) {
+        this.dashboardSummaryService = dashboardSummaryService;
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> getSummary() {
+        return ResponseEntity.ok(dashboardSummaryService.getSummary());
+    }
+}
@@ -1,100 +1,188 @@
 package com.supplychain.controller;
 
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.DeliveryView;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
 import com.supplychain.model.Delivery;
+import com.supplychain.model.Shipment;
 import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.KeysetSpecifications;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.service.EntityTagService;
 import com.supplychain.service.KafkaProducerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/deliveries")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class DeliveryController {
 
+    private static final String DELIVERED = "Delivered";
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final DeliveryRepository deliveryRepository;
+    private final ShipmentRepository shipmentRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityTagService entityTagService;
 
     @Autowired
-    public DeliveryController(DeliveryRepository deliveryRepository, KafkaProducerService kafkaProducerService) {
+    public DeliveryController(DeliveryRepository deliveryRepository, ShipmentRepository shipmentRepository,
+                              KafkaProducerService kafkaProducerService,
+                              TransactionTemplate transactionTemplate, EntityTagService entityTagService) {
         this.deliveryRepository = deliveryRepository;
+        this.shipmentRepository = shipmentRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityTagService = entityTagService;
     }
 
     @GetMapping
-    public List<Delivery> getAllDeliveries() {
-        // Only return deliveries where the associated shipment is actually "Delivered"
-        return deliveryRepository.findAll().stream()
-                .filter(delivery -> delivery.getShipment() != null && 
-                        "Delivered".equals(delivery.getShipment().getStatus()))
-                .collect(Collectors.toList());
+    public List<DeliveryView> getAllDeliveries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest request) {
+        // 304 from the version stamps alone, before any delivery is loaded
+        if (request.checkNotModified(entityTagService.deliveries())) {
+            return null;
+        }
+        // Only return deliveries where the associated shipment is actually "Delivered" (filtered in SQL)
+        return deliveryRepository.findViewsByShipmentStatus(DELIVERED, from, to, null, null, Limit.unlimited());
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllDeliveries}, newest first. {@code from}/{@code to}
+     * bound actualDeliveryDate; pass the returned nextCursor back as {@code cursor}.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<DeliveryView>> getDeliveryPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        try {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (request.checkNotModified(entityTagService.deliveries())) {
+                return null;
+            }
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<DeliveryView> rows = deliveryRepository.findViewsByShipmentStatus(DELIVERED, from, to,
+                    after != null ? after.getCreatedAt() : null,
+                    after != null ? after.getId() : null,
+                    Limit.of(pageSize + 1));
+            return ResponseEntity.ok(KeysetSpecifications.toPage(rows, pageSize,
+                    d -> new KeysetCursor(d.getCreatedAt(), d.getDeliveryId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/cleanup")
     public ResponseEntity<String> cleanupInconsistentDeliveries() {
         // Find and remove deliveries where shipment status is not "Delivered"
-        List<Delivery> inconsistentDeliveries = deliveryRepository.findAll().stream()
-                .filter(delivery -> delivery.getShipment() != null && 
-                        !"Delivered".equals(delivery.getShipment().getStatus()))
-                .collect(Collectors.toList());
-        
-        int deletedCount = inconsistentDeliveries.size();
-        deliveryRepository.deleteAll(inconsistentDeliveries);
+        int deletedCount = transactionTemplate.execute(tx -> {
+            List<Delivery> inconsistentDeliveries = deliveryRepository.findByShipmentStatusNot(DELIVERED);
+            deliveryRepository.deleteAll(inconsistentDeliveries);
+            for (Delivery delivery : inconsistentDeliveries) {
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.DELIVERY, delivery.getDeliveryId(),
+                        EntitySnapshots.of(delivery), "Delivery deleted: ID=" + delivery.getDeliveryId()));
+            }
+            return inconsistentDeliveries.size();
+        });
         
         return ResponseEntity.ok("Cleaned up " + deletedCount + " inconsistent delivery records");
     }
 
     @PostMapping
-    public Delivery createDelivery(@RequestBody Delivery delivery) {
-        Delivery savedDelivery = deliveryRepository.save(delivery);
-        String message = "Delivery created: ID=" + savedDelivery.getDeliveryId() + ", Recipient=" + savedDelivery.getRecipient();
-        kafkaProducerService.sendMessage("delivery-events", message);
-        return savedDelivery;
+    public DeliveryView createDelivery(@RequestBody Delivery delivery) {
+        delivery.setShipment(resolveShipment(delivery.getShipment()));
+        Delivery created = transactionTemplate.execute(tx -> {
+            Delivery savedDelivery = deliveryRepository.save(delivery);
+            String message = "Delivery created: ID=" + savedDelivery.getDeliveryId() + ", Recipient=" + savedDelivery.getRecipient();
+            kafkaProducerService.publish(DomainEvent.created(EntityType.DELIVERY, savedDelivery.getDeliveryId(),
+                    EntitySnapshots.of(savedDelivery), message));
+            return savedDelivery;
+        });
+        return DeliveryView.of(created);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Delivery> getDeliveryById(@PathVariable Long id) {
-        Delivery delivery = deliveryRepository.findById(id)
+    public ResponseEntity<DeliveryView> getDeliveryById(@PathVariable Long id, WebRequest request) {
+        String etag = entityTagService.delivery(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        Delivery delivery = deliveryRepository.findWithShipmentByDeliveryId(id)
                 .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + id));
-        return ResponseEntity.ok(delivery);
+        return ResponseEntity.ok(DeliveryView.of(delivery));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Delivery> updateDelivery(@PathVariable Long id, @RequestBody Delivery deliveryDetails) {
+    public ResponseEntity<DeliveryView> updateDelivery(@PathVariable Long id, @RequestBody Delivery deliveryDetails) {
         Delivery delivery = deliveryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + id));
+        Map<String, Object> before = EntitySnapshots.of(delivery);
 
-        delivery.setShipment(deliveryDetails.getShipment());
+        delivery.setShipment(resolveShipment(deliveryDetails.getShipment()));
         delivery.setActualDeliveryDate(deliveryDetails.getActualDeliveryDate());
         delivery.setRecipient(deliveryDetails.getRecipient());
 
-        final Delivery updatedDelivery = deliveryRepository.save(delivery);
-        String message = "Delivery updated: ID=" + id + ", Recipient=" + updatedDelivery.getRecipient();
-        kafkaProducerService.sendMessage("delivery-events", message);
-        return ResponseEntity.ok(updatedDelivery);
+        final Delivery updatedDelivery = transactionTemplate.execute(tx -> {
+            Delivery saved = deliveryRepository.save(delivery);
+            String message = "Delivery updated: ID=" + id + ", Recipient=" + saved.getRecipient();
+            kafkaProducerService.publish(DomainEvent.updated(EntityType.DELIVERY, id, before,
+                    EntitySnapshots.of(saved), message));
+            return saved;
+        });
+        return ResponseEntity.ok(DeliveryView.of(updatedDelivery));
+    }
+
+    // The request body carries a {shipmentId} stub without a version, which Hibernate would take
+    // for a new entity; swap it for the stored row
+    private Shipment resolveShipment(Shipment shipment) {
+        if (shipment == null || shipment.getShipmentId() == null) {
+            return null;
+        }
+        return shipmentRepository.findById(shipment.getShipmentId())
+                .orElseThrow(() -> new RuntimeException("Shipment not found with id: " + shipment.getShipmentId()));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteDelivery(@PathVariable Long id) {
         try {
-            if (!deliveryRepository.existsById(id)) {
+            Optional<Delivery> existingDelivery = deliveryRepository.findById(id);
+            if (existingDelivery.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Delivery not found with ID: " + id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
+            Map<String, Object> before = EntitySnapshots.of(existingDelivery.get());
 
-            deliveryRepository.deleteById(id);
+            transactionTemplate.executeWithoutResult(tx -> {
+                deliveryRepository.delete(existingDelivery.get());
 
-            // Publish to Kafka
-            String message = "Delivery deleted: ID=" + id;
-            kafkaProducerService.sendMessage("delivery-events", message);
+                // Publish to Kafka
+                String message = "Delivery deleted: ID=" + id;
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.DELIVERY, id, before, message));
+            });
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,56 @@
+package com.supplychain.controller;
+
+import com.supplychain.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Streams all shipments, cargo or deliveries as NDJSON (default) or CSV. The body is written
+     * row by row as it is read, so the first bytes arrive before the query has finished.
+     */
+    @GetMapping("/{entity}")
+    public void export(@PathVariable String entity,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported format: " + format);
+            return;
+        }
+        if (!ExportService.supports(entity)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Unsupported export entity: " + entity);
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + entity + "." + exportFormat.getExtension() + "\"");
+
+        long rows = exportService.export(entity, exportFormat, response.getOutputStream());
+        log.debug("Exported {} {} rows as {}", rows, entity, exportFormat);
+    }
+}
@@ -1,15 +1,26 @@
 package com.supplychain.controller;
 
+import com.supplychain.dto.RoutePlan;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
 import com.supplychain.model.Route;
 import com.supplychain.repository.RouteRepository;
+import com.supplychain.service.EntityTagService;
 import com.supplychain.service.KafkaProducerService;
+import com.supplychain.service.RouteNetwork;
+import com.supplychain.service.RoutePlannerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/routes")
@@ -18,28 +29,78 @@ public class RouteController {
 
     private final RouteRepository routeRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityTagService entityTagService;
+    private final RoutePlannerService routePlannerService;
 
     @Autowired
-    public RouteController(RouteRepository routeRepository, KafkaProducerService kafkaProducerService) {
+    public RouteController(RouteRepository routeRepository, KafkaProducerService kafkaProducerService,
+                           TransactionTemplate transactionTemplate, EntityTagService entityTagService,
+                           RoutePlannerService routePlannerService) {
         this.routeRepository = routeRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityTagService = entityTagService;
+        this.routePlannerService = routePlannerService;
     }
 
     @GetMapping
-    public List<Route> getAllRoutes() {
+    public List<Route> getAllRoutes(WebRequest request) {
+        // 304 from the version stamp alone, before any route is loaded
+        if (request.checkNotModified(entityTagService.routes())) {
+            return null;
+        }
         return routeRepository.findAll();
     }
 
+    /**
+     * Multi-hop plan from one port to another, minimizing {@code optimize} (cost, duration or
+     * distance) over routes of the given {@code modes} (comma-separated; all modes when omitted).
+     * Routes in an excluded status (Closed and Delayed by default) are never used.
+     */
+    @GetMapping("/plan")
+    public ResponseEntity<?> planRoute(@RequestParam String from,
+                                       @RequestParam String to,
+                                       @RequestParam(defaultValue = "cost") String optimize,
+                                       @RequestParam(required = false) List<String> modes) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        RouteNetwork.Metric metric = RoutePlannerService.metric(optimize);
+        if (metric == null) {
+            errorResponse.put("message", "optimize must be one of cost, duration, distance");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            RoutePlan plan = routePlannerService.plan(from, to, metric, modes != null ? new HashSet<>(modes) : null);
+            if (plan == null) {
+                errorResponse.put("message", "No route from " + from + " to " + to);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            }
+            return ResponseEntity.ok(plan);
+        } catch (Exception e) {
+            System.err.println("Error planning route: " + e.getMessage());
+            errorResponse.put("message", "Error planning route: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @PostMapping
     public Route createRoute(@RequestBody Route route) {
-        Route savedRoute = routeRepository.save(route);
-        String message = "Route created: ID=" + savedRoute.getRouteId() + ", From=" + savedRoute.getOriginPort() + " to " + savedRoute.getDestinationPort();
-        kafkaProducerService.sendMessage("route-events", message);
-        return savedRoute;
+        return transactionTemplate.execute(tx -> {
+            Route savedRoute = routeRepository.save(route);
+            String message = "Route created: ID=" + savedRoute.getRouteId() + ", From=" + savedRoute.getOriginPort() + " to " + savedRoute.getDestinationPort();
+            kafkaProducerService.publish(DomainEvent.created(EntityType.ROUTE, savedRoute.getRouteId(),
+                    EntitySnapshots.of(savedRoute), message));
+            return savedRoute;
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Route> getRouteById(@PathVariable Long id) {
+    public ResponseEntity<Route> getRouteById(@PathVariable Long id, WebRequest request) {
+        String etag = entityTagService.route(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         Route route = routeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Route not found with id: " + id));
         return ResponseEntity.ok(route);
@@ -50,6 +111,7 @@ public class RouteController {
         try {
             Route route = routeRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Route not found with id: " + id));
+            Map<String, Object> before = EntitySnapshots.of(route);
 
             // Update all fields
             route.setOriginPort(routeDetails.getOriginPort());
@@ -60,9 +122,13 @@ public class RouteController {
             route.setCost(routeDetails.getCost());
             route.setStatus(routeDetails.getStatus());
 
-            final Route updatedRoute = routeRepository.save(route);
-            String message = "Route updated: ID=" + id + ", From=" + updatedRoute.getOriginPort() + " to " + updatedRoute.getDestinationPort();
-            kafkaProducerService.sendMessage("route-events", message);
+            final Route updatedRoute = transactionTemplate.execute(tx -> {
+                Route saved = routeRepository.save(route);
+                String message = "Route updated: ID=" + id + ", From=" + saved.getOriginPort() + " to " + saved.getDestinationPort();
+                kafkaProducerService.publish(DomainEvent.updated(EntityType.ROUTE, id, before,
+                        EntitySnapshots.of(saved), message));
+                return saved;
+            });
             return ResponseEntity.ok(updatedRoute);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,18 +139,22 @@ public class RouteController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteRoute(@PathVariable Long id) {
         try {
-            if (!routeRepository.existsById(id)) {
+            Optional<Route> existingRoute = routeRepository.findById(id);
+            if (existingRoute.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Route not found with ID: " + id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
+            Map<String, Object> before = EntitySnapshots.of(existingRoute.get());
 
-            routeRepository.deleteById(id);
+            transactionTemplate.executeWithoutResult(tx -> {
+                routeRepository.delete(existingRoute.get());
 
-            // Publish to Kafka
-            String message = "Route deleted: ID=" + id;
-            kafkaProducerService.sendMessage("route-events", message);
+                // Publish to Kafka
+                String message = "Route deleted: ID=" + id;
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.ROUTE, id, before, message));
+            });
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
@@ -1,14 +1,38 @@
 package com.supplychain.controller;
 
+import com.supplychain.dto.BulkAssignRequest;
+import com.supplychain.dto.BulkStatusRequest;
+import com.supplychain.dto.CargoFilter;
+import com.supplychain.dto.CargoView;
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.dto.ShipmentFilter;
+import com.supplychain.dto.ShipmentView;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Route;
 import com.supplychain.model.Shipment;
+import com.supplychain.model.ShipmentCargoSummary;
 import com.supplychain.model.Delivery;
+import com.supplychain.model.Vendor;
+import com.supplychain.repository.CargoRepository;
 import com.supplychain.repository.ShipmentRepository;
 import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.RouteRepository;
+import com.supplychain.repository.VendorRepository;
+import com.supplychain.service.EntityTagService;
 import com.supplychain.service.KafkaProducerService;
+import com.supplychain.service.ShipmentAssignmentService;
+import com.supplychain.service.ShipmentManifestService;
+import com.supplychain.service.ShipmentTransitionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,23 +43,53 @@ import java.util.Optional;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class ShipmentController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ShipmentRepository shipmentRepository;
     private final DeliveryRepository deliveryRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final ShipmentTransitionService shipmentTransitionService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityTagService entityTagService;
+    private final CargoRepository cargoRepository;
+    private final ShipmentManifestService shipmentManifestService;
+    private final ShipmentAssignmentService shipmentAssignmentService;
 
     @Autowired
     public ShipmentController(ShipmentRepository shipmentRepository, 
                             DeliveryRepository deliveryRepository,
-                            KafkaProducerService kafkaProducerService) {
+                            RouteRepository routeRepository,
+                            VendorRepository vendorRepository,
+                            KafkaProducerService kafkaProducerService,
+                            ShipmentTransitionService shipmentTransitionService,
+                            TransactionTemplate transactionTemplate,
+                            EntityTagService entityTagService,
+                            CargoRepository cargoRepository,
+                            ShipmentManifestService shipmentManifestService,
+                            ShipmentAssignmentService shipmentAssignmentService) {
         this.shipmentRepository = shipmentRepository;
         this.deliveryRepository = deliveryRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.shipmentTransitionService = shipmentTransitionService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityTagService = entityTagService;
+        this.cargoRepository = cargoRepository;
+        this.shipmentManifestService = shipmentManifestService;
+        this.shipmentAssignmentService = shipmentAssignmentService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Shipment>> getAllShipments() {
+    public ResponseEntity<List<ShipmentView>> getAllShipments(WebRequest request) {
         try {
-            List<Shipment> shipments = shipmentRepository.findAll();
+            // 304 from the version stamps alone, before any shipment is loaded
+            if (request.checkNotModified(entityTagService.shipments())) {
+                return null;
+            }
+            List<ShipmentView> shipments = shipmentRepository.findAllWithReferences().stream().map(ShipmentView::of).toList();
             return ResponseEntity.ok(shipments);
         } catch (Exception e) {
             System.err.println("Error fetching shipments: " + e.getMessage());
@@ -43,12 +97,40 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * Keyset-paginated shipment list, newest first. Pass the returned nextCursor back as
+     * {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ShipmentView>> getShipmentPage(ShipmentFilter filter,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "50") int limit,
+                                                                    WebRequest request) {
+        try {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (request.checkNotModified(entityTagService.shipments())) {
+                return null;
+            }
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(shipmentRepository.findPage(filter, after, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Error fetching shipment page: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Shipment> getShipmentById(@PathVariable Long id) {
+    public ResponseEntity<ShipmentView> getShipmentById(@PathVariable Long id, WebRequest request) {
         try {
-            Optional<Shipment> shipment = shipmentRepository.findById(id);
+            String etag = entityTagService.shipment(id);
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
+            Optional<Shipment> shipment = shipmentRepository.findWithReferencesByShipmentId(id);
             if (shipment.isPresent()) {
-                return ResponseEntity.ok(shipment.get());
+                return ResponseEntity.ok(ShipmentView.of(shipment.get()));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -58,19 +140,73 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * The shipment's cargo, keyset-paginated newest first like {@code /api/cargo/page}. Pass the
+     * returned nextCursor back as {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/{id}/cargo")
+    public ResponseEntity<CursorPage<CargoView>> getShipmentCargo(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int limit,
+                                                                  WebRequest request) {
+        try {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (!shipmentRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(entityTagService.cargoList())) {
+                return null;
+            }
+            CargoFilter filter = new CargoFilter();
+            filter.setShipmentId(id);
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(cargoRepository.findPage(filter, after, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Error fetching shipment cargo: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /** Item count, value, volume and weight in kg of the shipment's cargo, read from the stored totals. */
+    @GetMapping("/{id}/cargo/summary")
+    public ResponseEntity<ShipmentCargoSummary> getShipmentCargoSummary(@PathVariable Long id, WebRequest request) {
+        try {
+            String etag = entityTagService.manifest(id);
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
+            if (etag == null && !shipmentRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(shipmentManifestService.summary(id));
+        } catch (Exception e) {
+            System.err.println("Error fetching shipment cargo summary: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping
-    public ResponseEntity<Shipment> createShipment(@RequestBody Shipment shipment) {
+    public ResponseEntity<ShipmentView> createShipment(@RequestBody Shipment shipment) {
         try {
-            System.out.println("Received shipment: " + shipment);
-            Shipment savedShipment = shipmentRepository.save(shipment);
-            
-            // Publish Kafka event
-            String message = "Shipment created: ID=" + savedShipment.getShipmentId() + 
-                           ", Origin=" + savedShipment.getOrigin() + 
-                           ", Destination=" + savedShipment.getDestination();
-            kafkaProducerService.sendMessage("shipment-events", message);
+            System.out.println("Received shipment: " + EntitySnapshots.of(shipment));
+            shipment.setAssignedRoute(resolveRoute(shipment.getAssignedRoute()));
+            shipment.setAssignedVendor(resolveVendor(shipment.getAssignedVendor()));
+            Shipment savedShipment = transactionTemplate.execute(tx -> {
+                Shipment saved = shipmentRepository.save(shipment);
+                shipmentManifestService.shipmentCreated(saved.getShipmentId());
+
+                // Publish Kafka event
+                String message = "Shipment created: ID=" + saved.getShipmentId() + 
+                               ", Origin=" + saved.getOrigin() + 
+                               ", Destination=" + saved.getDestination();
+                kafkaProducerService.publish(DomainEvent.created(EntityType.SHIPMENT, saved.getShipmentId(),
+                        EntitySnapshots.of(saved), message));
+                return saved;
+            });
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedShipment);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ShipmentView.of(savedShipment));
         } catch (Exception e) {
             System.err.println("Error creating shipment: " + e.getMessage());
             e.printStackTrace();
@@ -79,12 +215,13 @@ public class ShipmentController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Shipment> updateShipment(@PathVariable Long id, @RequestBody Shipment shipmentDetails) {
+    public ResponseEntity<ShipmentView> updateShipment(@PathVariable Long id, @RequestBody Shipment shipmentDetails) {
         try {
-            Optional<Shipment> existingShipment = shipmentRepository.findById(id);
+            Optional<Shipment> existingShipment = shipmentRepository.findWithReferencesByShipmentId(id);
             if (existingShipment.isPresent()) {
                 Shipment shipment = existingShipment.get();
                 String oldStatus = shipment.getStatus(); // Store old status
+                Map<String, Object> before = EntitySnapshots.of(shipment);
                 
                 shipment.setOrigin(shipmentDetails.getOrigin());
                 shipment.setDestination(shipmentDetails.getDestination());
@@ -93,42 +230,47 @@ public class ShipmentController {
                 
                 // Set route and vendor if provided
                 if (shipmentDetails.getAssignedRoute() != null) {
-                    shipment.setAssignedRoute(shipmentDetails.getAssignedRoute());
+                    shipment.setAssignedRoute(resolveRoute(shipmentDetails.getAssignedRoute()));
                 }
                 if (shipmentDetails.getAssignedVendor() != null) {
-                    shipment.setAssignedVendor(shipmentDetails.getAssignedVendor());
+                    shipment.setAssignedVendor(resolveVendor(shipmentDetails.getAssignedVendor()));
                 }
                 
-                Shipment updatedShipment = shipmentRepository.save(shipment);
+                Shipment updatedShipment = transactionTemplate.execute(tx -> {
+                    Shipment saved = shipmentRepository.save(shipment);
 
-                // Automatically create delivery record when shipment status changes to "Delivered"
-                if ("Delivered".equals(shipmentDetails.getStatus()) && 
-                    !"Delivered".equals(oldStatus)) {
+                    // Automatically create delivery record when shipment status changes to "Delivered"
+                    if ("Delivered".equals(shipmentDetails.getStatus()) && 
+                        !"Delivered".equals(oldStatus)) {
                     
-                    // Check if delivery record already exists for this shipment
-                    boolean deliveryExists = deliveryRepository.findAll().stream()
-                        .anyMatch(d -> d.getShipment() != null && 
-                                      d.getShipment().getShipmentId().equals(id));
+                        // Check if delivery record already exists for this shipment (indexed lookup on shipment_id)
+                        boolean deliveryExists = deliveryRepository.existsByShipment(saved);
                     
-                    if (!deliveryExists) {
-                        Delivery delivery = new Delivery();
-                        delivery.setShipment(updatedShipment);
-                        // Convert LocalDate to LocalDateTime (start of day)
-                        delivery.setActualDeliveryDate(updatedShipment.getEstimatedDelivery().atStartOfDay());
-                        delivery.setRecipient("Customer at " + updatedShipment.getDestination());
-                        deliveryRepository.save(delivery);
+                        if (!deliveryExists) {
+                            Delivery delivery = new Delivery();
+                            delivery.setShipment(saved);
+                            // Convert LocalDate to LocalDateTime (start of day)
+                            delivery.setActualDeliveryDate(saved.getEstimatedDelivery().atStartOfDay());
+                            delivery.setRecipient("Customer at " + saved.getDestination());
+                            Delivery savedDelivery = deliveryRepository.save(delivery);
+                            String deliveryMessage = "Delivery created: ID=" + savedDelivery.getDeliveryId() + ", Recipient=" + savedDelivery.getRecipient();
+                            kafkaProducerService.publish(DomainEvent.created(EntityType.DELIVERY, savedDelivery.getDeliveryId(),
+                                    EntitySnapshots.of(savedDelivery), deliveryMessage));
+                        }
                     }
-                }
 
-                // Note: For now, shipment updates work normally
-                // Delivery synchronization is handled by the improved DeliveryController.getAllDeliveries() method
-                // which filters deliveries to only show those with "Delivered" status
+                    // Note: For now, shipment updates work normally
+                    // Delivery synchronization is handled by the improved DeliveryController.getAllDeliveries() method
+                    // which filters deliveries to only show those with "Delivered" status
 
-                // Publish Kafka event
-                String message = "Shipment updated: ID=" + id + ", Status=" + updatedShipment.getStatus();
-                kafkaProducerService.sendMessage("shipment-events", message);
-                
-                return ResponseEntity.ok(updatedShipment);
+                    // Publish Kafka event
+                    String message = "Shipment updated: ID=" + id + ", Status=" + saved.getStatus();
+                    kafkaProducerService.publish(DomainEvent.updated(EntityType.SHIPMENT, id, before,
+                            EntitySnapshots.of(saved), message));
+                    return saved;
+                });
+
+                return ResponseEntity.ok(ShipmentView.of(updatedShipment));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -139,32 +281,114 @@ public class ShipmentController {
         }
     }
 
+    // The request body carries {routeId}/{vendorId} stubs without a version, which Hibernate
+    // would take for new entities; swap them for the stored rows
+    private Route resolveRoute(Route route) {
+        if (route == null || route.getRouteId() == null) {
+            return null;
+        }
+        return routeRepository.findById(route.getRouteId())
+                .orElseThrow(() -> new RuntimeException("Route not found with id: " + route.getRouteId()));
+    }
+
+    private Vendor resolveVendor(Vendor vendor) {
+        if (vendor == null || vendor.getVendorId() == null) {
+            return null;
+        }
+        return vendorRepository.findById(vendor.getVendorId())
+                .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + vendor.getVendorId()));
+    }
+
+    /**
+     * Moves a set of shipments, given by id or by filter, to one status in a single transaction.
+     * Shipments already in that status are left alone. Moving to "Delivered" also creates any
+     * missing delivery records.
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody BulkStatusRequest request) {
+        try {
+            return ResponseEntity.ok(shipmentTransitionService.transition(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("Error updating shipment statuses: " + e.getMessage());
+            e.printStackTrace();
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error updating shipment statuses: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Gives vendors to the unassigned shipments among a set, given by id or by filter, in a single
+     * transaction. Each goes to an active vendor of a matching service type with room under its
+     * capacity, chosen by the balancing strategy. With dryRun the plan is returned without being applied.
+     */
+    @PostMapping("/bulk-assign")
+    public ResponseEntity<?> bulkAssignVendors(@RequestBody BulkAssignRequest request) {
+        try {
+            return ResponseEntity.ok(shipmentAssignmentService.assign(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("Error assigning shipment vendors: " + e.getMessage());
+            e.printStackTrace();
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error assigning shipment vendors: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteShipment(@PathVariable Long id) {
         try {
-            if (!shipmentRepository.existsById(id)) {
+            Optional<Shipment> existingShipment = shipmentRepository.findById(id);
+            if (existingShipment.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Shipment not found with ID: " + id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
+            Shipment shipment = existingShipment.get();
+            Map<String, Object> before = EntitySnapshots.of(shipment);
 
-            // Delete associated deliveries first (to avoid foreign key constraint violation)
-            List<Delivery> associatedDeliveries = deliveryRepository.findAll().stream()
-                .filter(d -> d.getShipment() != null && d.getShipment().getShipmentId().equals(id))
-                .toList();
+            transactionTemplate.executeWithoutResult(tx -> {
+                // Delete associated delivery first (to avoid foreign key constraint violation)
+                List<Delivery> associatedDeliveries = deliveryRepository.findByShipment(shipment).stream().toList();
             
-            if (!associatedDeliveries.isEmpty()) {
-                deliveryRepository.deleteAll(associatedDeliveries);
-                System.out.println("Deleted " + associatedDeliveries.size() + " associated delivery records");
-            }
+                if (!associatedDeliveries.isEmpty()) {
+                    deliveryRepository.deleteAll(associatedDeliveries);
+                    System.out.println("Deleted " + associatedDeliveries.size() + " associated delivery records");
+                }
+
+                // Snapshot the cargo before it is removed by the cascade, so listeners see those deletions too
+                List<Cargo> cascadedCargo = shipment.getCargoItems() != null ? List.copyOf(shipment.getCargoItems()) : List.of();
+                List<Map<String, Object>> cargoSnapshots = cascadedCargo.stream().map(EntitySnapshots::of).toList();
 
-            // Now delete the shipment (cargo will be cascaded automatically)
-            shipmentRepository.deleteById(id);
+                // Now delete the shipment (cargo will be cascaded automatically), and its cargo totals
+                shipmentManifestService.shipmentDeleted(id);
+                shipmentRepository.delete(shipment);
 
-            // Publish Kafka event
-            String message = "Shipment deleted: ID=" + id;
-            kafkaProducerService.sendMessage("shipment-events", message);
+                // Publish Kafka events
+                for (Delivery delivery : associatedDeliveries) {
+                    kafkaProducerService.publish(DomainEvent.deleted(EntityType.DELIVERY, delivery.getDeliveryId(),
+                            EntitySnapshots.of(delivery), "Delivery deleted: ID=" + delivery.getDeliveryId()));
+                }
+                for (Map<String, Object> cargo : cargoSnapshots) {
+                    Long cargoId = (Long) cargo.get("cargoId");
+                    kafkaProducerService.publish(DomainEvent.deleted(EntityType.CARGO, cargoId, cargo, "Cargo deleted: ID=" + cargoId));
+                }
+                String message = "Shipment deleted: ID=" + id;
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.SHIPMENT, id, before, message));
+            });
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,38 @@
+package com.supplychain.controller;
+
+import com.supplychain.dto.SyncCursor;
+import com.supplychain.dto.SyncResponse;
+import com.supplychain.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @Autowired
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Shipments, cargo, routes, vendors and deliveries created, updated or deleted since the
+     * cursor. Omit {@code since} for a full snapshot; pass the returned nextCursor next time.
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(SyncCursor.decode(since)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Error computing sync changes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
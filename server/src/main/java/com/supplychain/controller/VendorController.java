@@ -1,15 +1,22 @@
 package com.supplychain.controller;
 
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
 import com.supplychain.model.Vendor;
 import com.supplychain.repository.VendorRepository;
+import com.supplychain.service.EntityTagService;
 import com.supplychain.service.KafkaProducerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/vendors")
@@ -18,15 +25,24 @@ public class VendorController {
 
     private final VendorRepository vendorRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityTagService entityTagService;
 
     @Autowired
-    public VendorController(VendorRepository vendorRepository, KafkaProducerService kafkaProducerService) {
+    public VendorController(VendorRepository vendorRepository, KafkaProducerService kafkaProducerService,
+                            TransactionTemplate transactionTemplate, EntityTagService entityTagService) {
         this.vendorRepository = vendorRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityTagService = entityTagService;
     }
 
     @GetMapping
-    public List<Vendor> getAllVendors() {
+    public List<Vendor> getAllVendors(WebRequest request) {
+        // 304 from the version stamp alone, before any vendor is loaded
+        if (request.checkNotModified(entityTagService.vendors())) {
+            return null;
+        }
         return vendorRepository.findAll();
     }
 
@@ -40,9 +56,13 @@ public class VendorController {
                 vendor.setIsActive(true);
             }
             
-            Vendor savedVendor = vendorRepository.save(vendor);
-            String message = "Vendor created: ID=" + savedVendor.getVendorId() + ", Name=" + savedVendor.getName();
-            kafkaProducerService.sendMessage("vendor-events", message);
+            Vendor savedVendor = transactionTemplate.execute(tx -> {
+                Vendor saved = vendorRepository.save(vendor);
+                String message = "Vendor created: ID=" + saved.getVendorId() + ", Name=" + saved.getName();
+                kafkaProducerService.publish(DomainEvent.created(EntityType.VENDOR, saved.getVendorId(),
+                        EntitySnapshots.of(saved), message));
+                return saved;
+            });
             return ResponseEntity.ok(savedVendor);
         } catch (Exception e) {
             System.err.println("Error creating vendor: " + e.getMessage());
@@ -52,7 +72,11 @@ public class VendorController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Vendor> getVendorById(@PathVariable Long id) {
+    public ResponseEntity<Vendor> getVendorById(@PathVariable Long id, WebRequest request) {
+        String etag = entityTagService.vendor(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         Vendor vendor = vendorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + id));
         return ResponseEntity.ok(vendor);
@@ -62,32 +86,41 @@ public class VendorController {
     public ResponseEntity<Vendor> updateVendor(@PathVariable Long id, @RequestBody Vendor vendorDetails) {
         Vendor vendor = vendorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + id));
+        Map<String, Object> before = EntitySnapshots.of(vendor);
 
         vendor.setName(vendorDetails.getName());
         vendor.setContactInfo(vendorDetails.getContactInfo());
         vendor.setServiceType(vendorDetails.getServiceType());
 
-        final Vendor updatedVendor = vendorRepository.save(vendor);
-        String message = "Vendor updated: ID=" + id + ", Name=" + updatedVendor.getName();
-        kafkaProducerService.sendMessage("vendor-events", message);
+        final Vendor updatedVendor = transactionTemplate.execute(tx -> {
+            Vendor saved = vendorRepository.save(vendor);
+            String message = "Vendor updated: ID=" + id + ", Name=" + saved.getName();
+            kafkaProducerService.publish(DomainEvent.updated(EntityType.VENDOR, id, before,
+                    EntitySnapshots.of(saved), message));
+            return saved;
+        });
         return ResponseEntity.ok(updatedVendor);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteVendor(@PathVariable Long id) {
         try {
-            if (!vendorRepository.existsById(id)) {
+            Optional<Vendor> existingVendor = vendorRepository.findById(id);
+            if (existingVendor.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Vendor not found with ID: " + id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
+            Map<String, Object> before = EntitySnapshots.of(existingVendor.get());
 
-            vendorRepository.deleteById(id);
+            transactionTemplate.executeWithoutResult(tx -> {
+                vendorRepository.delete(existingVendor.get());
 
-            // Publish to Kafka
-            String message = "Vendor deleted: ID=" + id;
-            kafkaProducerService.sendMessage("vendor-events", message);
+                // Publish to Kafka
+                String message = "Vendor deleted: ID=" + id;
+                kafkaProducerService.publish(DomainEvent.deleted(EntityType.VENDOR, id, before, message));
+            });
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
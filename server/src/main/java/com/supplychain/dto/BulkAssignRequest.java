@@ -0,0 +1,15 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAssignRequest {
+    private List<Long> shipmentIds;  // explicit selection; takes precedence over filter
+    private ShipmentFilter filter;   // used when shipmentIds is not given
+    private String serviceType;      // only vendors of this type; otherwise chosen by route mode
+    private Integer maxPerVendor;    // open shipments per vendor; defaults to the configured capacity
+    private String strategy;         // "balance" or "consolidate"; defaults to the configured strategy
+    private boolean dryRun;          // compute the plan without applying it
+}
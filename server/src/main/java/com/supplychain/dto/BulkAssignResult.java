@@ -0,0 +1,20 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+public class BulkAssignResult {
+    private String strategy;
+    private boolean dryRun;
+    private long matched;   // shipments the plan placed
+    private long assigned;  // shipments actually updated; lower than matched if some were assigned concurrently
+    private long planMs;
+    private long elapsedMs;
+    private Map<Long, List<Long>> assignments = new TreeMap<>();  // vendorId -> shipment ids
+    private List<Long> unassignedIds = new ArrayList<>();         // no eligible vendor had room
+}
@@ -0,0 +1,27 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResult {
+    private long received;
+    private long inserted;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private String fatalError;  // set when the payload could not be read to the end
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;  // 1-based position in the payload (excluding any CSV header)
+        private String message;
+    }
+}
@@ -0,0 +1,12 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusRequest {
+    private List<Long> shipmentIds;  // explicit selection; takes precedence over filter
+    private ShipmentFilter filter;   // used when shipmentIds is not given
+    private String status;           // target status
+}
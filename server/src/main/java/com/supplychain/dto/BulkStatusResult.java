@@ -0,0 +1,15 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkStatusResult {
+    private String status;
+    private long updated;
+    private long deliveriesCreated;
+    private long elapsedMs;
+    private List<Long> updatedIds = new ArrayList<>();
+}
@@ -0,0 +1,27 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional query-string filters for the paginated cargo list. Status, origin, destination,
+ * vendor and route refer to the shipment the cargo is assigned to. Null fields are ignored.
+ */
+@Data
+public class CargoFilter {
+    private String type;
+    private Long shipmentId;
+    private String status;
+    private String origin;
+    private String destination;
+    private Long vendorId;
+    private Long routeId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;  // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;    // exclusive
+}
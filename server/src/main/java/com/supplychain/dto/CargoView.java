@@ -0,0 +1,42 @@
+package com.supplychain.dto;
+
+import com.supplychain.model.Cargo;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for cargo responses: the cargo columns and a {@link ShipmentRef}, instead of the
+ * whole shipment with its route and vendor. Build it from cargo loaded with its shipment.
+ */
+@Data
+public class CargoView {
+    private Long cargoId;
+    private ShipmentRef shipment;
+    private String type;
+    private BigDecimal value;
+    private String description;
+    private BigDecimal weight;
+    private BigDecimal volume;
+    private String weightUnit;
+    private Long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static CargoView of(Cargo cargo) {
+        CargoView view = new CargoView();
+        view.cargoId = cargo.getCargoId();
+        view.shipment = ShipmentRef.of(cargo.getShipment());
+        view.type = cargo.getType();
+        view.value = cargo.getValue();
+        view.description = cargo.getDescription();
+        view.weight = cargo.getWeight();
+        view.volume = cargo.getVolume();
+        view.weightUnit = cargo.getWeightUnit();
+        view.version = cargo.getVersion();
+        view.createdAt = cargo.getCreatedAt();
+        view.updatedAt = cargo.getUpdatedAt();
+        return view;
+    }
+}
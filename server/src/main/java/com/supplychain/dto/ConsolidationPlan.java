@@ -0,0 +1,41 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A packing of cargo into shipments for one lane, as computed by the consolidation solver.
+ * Post it back unchanged (or trimmed) to commit it.
+ */
+@Data
+public class ConsolidationPlan {
+    private String origin;
+    private String destination;
+    private BigDecimal maxWeightKg;
+    private BigDecimal maxVolume;
+    private long items;
+    private int existingShipmentsFilled;
+    private int newShipments;
+    private int lowerBound;      // fewest new shipments any packing could use
+    private String ordering;     // the attempt that produced this plan
+    private int attempts;
+    private boolean timedOut;    // the budget ran out before the search finished
+    private long planMs;
+    private List<Bin> shipments = new ArrayList<>();
+    private List<Long> oversizedCargoIds = new ArrayList<>();  // larger than a cap on their own
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bin {
+        private Long shipmentId;  // existing shipment to top up; null for a new one
+        private List<Long> cargoIds;
+        private BigDecimal weightKg;  // total after packing, including cargo already on the shipment
+        private BigDecimal volume;
+    }
+}
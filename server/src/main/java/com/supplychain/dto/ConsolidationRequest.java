@@ -0,0 +1,18 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ConsolidationRequest {
+    private String origin;            // lane the shipments travel
+    private String destination;
+    private List<Long> cargoIds;      // explicit selection of unassigned cargo; otherwise all unassigned cargo
+    private String type;              // only cargo of this type, when cargoIds is not given
+    private BigDecimal maxWeightKg;   // per shipment; defaults to the configured cap
+    private BigDecimal maxVolume;     // per shipment; defaults to the configured cap
+    private Boolean fillExisting;     // top up open shipments on the lane first; default true
+    private Long timeBudgetMs;        // search time; defaults to the configured budget
+}
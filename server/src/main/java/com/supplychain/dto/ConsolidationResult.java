@@ -0,0 +1,15 @@
+package com.supplychain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ConsolidationResult {
+    private long cargoAssigned;
+    private int shipmentsCreated;
+    private int shipmentsFilled;
+    private long elapsedMs;
+    private List<Long> createdShipmentIds = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;  // null on the last page
+    private boolean hasMore;
+}
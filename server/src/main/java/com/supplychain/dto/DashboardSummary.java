@@ -0,0 +1,22 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class DashboardSummary {
+    private Map<String, Long> shipmentsByStatus;
+    private long totalShipments;
+    private long activeRoutes;
+    private long activeVendors;
+    private long totalCargoItems;
+    private BigDecimal totalCargoValue;
+    private BigDecimal totalCargoWeightKg;
+    private long deliveriesToday;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,39 @@
+package com.supplychain.dto;
+
+import com.supplychain.model.Delivery;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for the deliveries list: only the delivery columns and the few shipment columns
+ * the view shows. Keeps the same JSON shape as the entity ({@code shipment.origin} etc.).
+ */
+@Data
+public class DeliveryView {
+    private Long deliveryId;
+    private LocalDateTime actualDeliveryDate;
+    private String recipient;
+    private String status;
+    private LocalDateTime createdAt;
+    private ShipmentRef shipment;
+
+    // Used by the JPQL constructor expression in DeliveryRepository
+    public DeliveryView(Long deliveryId, LocalDateTime actualDeliveryDate, String recipient, String status,
+                        LocalDateTime createdAt, Long shipmentId, String origin, String destination,
+                        String shipmentStatus) {
+        this.deliveryId = deliveryId;
+        this.actualDeliveryDate = actualDeliveryDate;
+        this.recipient = recipient;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.shipment = new ShipmentRef(shipmentId, origin, destination, shipmentStatus);
+    }
+
+    public static DeliveryView of(Delivery delivery) {
+        DeliveryView view = new DeliveryView(delivery.getDeliveryId(), delivery.getActualDeliveryDate(), delivery.getRecipient(),
+                delivery.getStatus(), delivery.getCreatedAt(), null, null, null, null);
+        view.setShipment(ShipmentRef.of(delivery.getShipment()));
+        return view;
+    }
+}
@@ -0,0 +1,34 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response of {@code GET /api/routes/plan}: the chosen routes in travel order and their totals.
+ * A total is null when some leg has no value for it (only the optimized metric is guaranteed).
+ */
+@Data
+@AllArgsConstructor
+public class RoutePlan {
+    private String from;
+    private String to;
+    private String optimize;
+    private Double totalCost;
+    private Double totalDuration;
+    private Double totalDistance;
+    private List<Leg> legs;
+
+    @Data
+    @AllArgsConstructor
+    public static class Leg {
+        private Long routeId;
+        private String originPort;
+        private String destinationPort;
+        private String transportationMode;
+        private Double cost;
+        private Double duration;
+        private Double distance;
+    }
+}
@@ -0,0 +1,20 @@
+package com.supplychain.dto;
+
+import com.supplychain.model.Shipment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** The shipment columns shown next to cargo and deliveries. */
+@Data
+@AllArgsConstructor
+public class ShipmentRef {
+    private Long shipmentId;
+    private String origin;
+    private String destination;
+    private String status;
+
+    public static ShipmentRef of(Shipment shipment) {
+        return shipment == null ? null
+                : new ShipmentRef(shipment.getShipmentId(), shipment.getOrigin(), shipment.getDestination(), shipment.getStatus());
+    }
+}
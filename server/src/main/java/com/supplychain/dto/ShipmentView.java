@@ -0,0 +1,76 @@
+package com.supplychain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.supplychain.model.Route;
+import com.supplychain.model.Shipment;
+import com.supplychain.model.Vendor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for shipment responses: the shipment columns plus the route and vendor fields the
+ * views show, under the entity's JSON names ({@code assignedRoute.originPort} etc.). Build it
+ * from a shipment loaded with its route and vendor (see ShipmentRepository's entity graphs).
+ */
+@Data
+public class ShipmentView {
+    private Long shipmentId;
+    private String origin;
+    private String destination;
+    private String status;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate estimatedDelivery;
+    private RouteRef assignedRoute;
+    private VendorRef assignedVendor;
+    private String shipmentCode;
+    private Long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static ShipmentView of(Shipment shipment) {
+        ShipmentView view = new ShipmentView();
+        view.shipmentId = shipment.getShipmentId();
+        view.origin = shipment.getOrigin();
+        view.destination = shipment.getDestination();
+        view.status = shipment.getStatus();
+        view.estimatedDelivery = shipment.getEstimatedDelivery();
+        view.assignedRoute = RouteRef.of(shipment.getAssignedRoute());
+        view.assignedVendor = VendorRef.of(shipment.getAssignedVendor());
+        view.shipmentCode = shipment.getShipmentCode();
+        view.version = shipment.getVersion();
+        view.createdAt = shipment.getCreatedAt();
+        view.updatedAt = shipment.getUpdatedAt();
+        return view;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RouteRef {
+        private Long routeId;
+        private String originPort;
+        private String destinationPort;
+        private String transportationMode;
+        private String status;
+
+        static RouteRef of(Route route) {
+            return route == null ? null
+                    : new RouteRef(route.getRouteId(), route.getOriginPort(), route.getDestinationPort(),
+                            route.getTransportationMode(), route.getStatus());
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class VendorRef {
+        private Long vendorId;
+        private String name;
+        private String serviceType;
+
+        static VendorRef of(Vendor vendor) {
+            return vendor == null ? null : new VendorRef(vendor.getVendorId(), vendor.getName(), vendor.getServiceType());
+        }
+    }
+}
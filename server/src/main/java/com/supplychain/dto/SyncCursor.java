@@ -0,0 +1,51 @@
+package com.supplychain.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in the change feed: everything updated or deleted at or after this instant.
+ * Clients only ever see the encoded token and hand it back unchanged.
+ */
+public final class SyncCursor {
+
+    private static final String VERSION = "s1";
+
+    private final LocalDateTime since;
+
+    public SyncCursor(LocalDateTime since) {
+        this.since = since;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + since;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Returns null for a blank token (full sync).
+     *
+     * @throws IllegalArgumentException if the token was not produced by this class
+     */
+    public static SyncCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new SyncCursor(LocalDateTime.parse(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
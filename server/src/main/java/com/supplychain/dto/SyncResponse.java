@@ -0,0 +1,25 @@
+package com.supplychain.dto;
+
+import com.supplychain.model.Route;
+import com.supplychain.model.Vendor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the change feed. When {@code full} is true the lists hold every row and the client
+ * should replace its copy; otherwise they hold rows created or updated since the cursor, and
+ * {@code deleted} lists removed ids per collection. Pass {@code nextCursor} as {@code since} next time.
+ */
+@Data
+public class SyncResponse {
+    private boolean full;
+    private String nextCursor;
+    private List<ShipmentView> shipments;
+    private List<CargoView> cargo;
+    private List<Route> routes;
+    private List<Vendor> vendors;
+    private List<DeliveryView> deliveries;  // any shipment status; clients showing delivered ones filter on shipment.status
+    private Map<String, List<Long>> deleted;  // "shipments", "cargo", ... -> ids
+}
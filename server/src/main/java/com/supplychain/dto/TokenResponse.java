@@ -0,0 +1,20 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Access/refresh token pair issued by login, OAuth login and {@code /api/auth/refresh}. Send the
+ * access token as {@code Authorization: Bearer <accessToken>}; when it expires (after
+ * {@code expiresIn} seconds) trade the refresh token for a new pair.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    private long expiresIn;
+}
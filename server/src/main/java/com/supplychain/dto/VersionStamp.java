@@ -0,0 +1,26 @@
+package com.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate state of one table, read with a single query: row count, latest update and the sum
+ * of row versions. Any insert, update or delete changes at least one of them, so it can stand in
+ * for the table's contents when computing a collection ETag.
+ */
+@Data
+@AllArgsConstructor
+public class VersionStamp {
+    private Long count;
+    private LocalDateTime lastUpdated;
+    private Long versionSum;
+
+    /** Compact form for use inside an ETag. */
+    public String token() {
+        long updated = lastUpdated != null ? lastUpdated.toLocalDate().toEpochDay() * 86_400_000_000L
+                + lastUpdated.toLocalTime().toNanoOfDay() / 1_000 : 0;
+        return Long.toString(count, 36) + "-" + Long.toString(updated, 36) + "-" + Long.toString(versionSum, 36);
+    }
+}
@@ -0,0 +1,71 @@
+package com.supplychain.event;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A change to one entity, published in-process by {@link com.supplychain.service.KafkaProducerService}
+ * alongside the Kafka message for the same change. {@code before} is empty for creates and
+ * {@code after} is empty for deletes, so listeners can apply exact deltas.
+ */
+public class DomainEvent {
+
+    private final EntityType entityType;
+    private final Long entityId;
+    private final Operation operation;
+    private final Map<String, Object> before;
+    private final Map<String, Object> after;
+    private final String message;
+
+    public DomainEvent(EntityType entityType, Long entityId, Operation operation,
+                       Map<String, Object> before, Map<String, Object> after, String message) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.before = before != null ? before : Collections.emptyMap();
+        this.after = after != null ? after : Collections.emptyMap();
+        this.message = message;
+    }
+
+    public static DomainEvent created(EntityType type, Long id, Map<String, Object> after, String message) {
+        return new DomainEvent(type, id, Operation.CREATED, null, after, message);
+    }
+
+    public static DomainEvent updated(EntityType type, Long id, Map<String, Object> before,
+                                      Map<String, Object> after, String message) {
+        return new DomainEvent(type, id, Operation.UPDATED, before, after, message);
+    }
+
+    public static DomainEvent deleted(EntityType type, Long id, Map<String, Object> before, String message) {
+        return new DomainEvent(type, id, Operation.DELETED, before, null, message);
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Map<String, Object> getBefore() {
+        return before;
+    }
+
+    public Map<String, Object> getAfter() {
+        return after;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return entityType + " " + operation + " id=" + entityId;
+    }
+}
@@ -0,0 +1,79 @@
+package com.supplychain.event;
+
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Delivery;
+import com.supplychain.model.Route;
+import com.supplychain.model.Shipment;
+import com.supplychain.model.Vendor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flat copies of an entity's columns (associations reduced to their IDs) for {@link DomainEvent}.
+ * Take the "before" snapshot before mutating a managed entity, since the entity is updated in place.
+ */
+public final class EntitySnapshots {
+
+    private EntitySnapshots() {
+    }
+
+    public static Map<String, Object> of(Shipment shipment) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("shipmentId", shipment.getShipmentId());
+        m.put("origin", shipment.getOrigin());
+        m.put("destination", shipment.getDestination());
+        m.put("status", shipment.getStatus());
+        m.put("estimatedDelivery", shipment.getEstimatedDelivery());
+        m.put("routeId", shipment.getAssignedRoute() != null ? shipment.getAssignedRoute().getRouteId() : null);
+        m.put("vendorId", shipment.getAssignedVendor() != null ? shipment.getAssignedVendor().getVendorId() : null);
+        m.put("shipmentCode", shipment.getShipmentCode());
+        return m;
+    }
+
+    public static Map<String, Object> of(Cargo cargo) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("cargoId", cargo.getCargoId());
+        m.put("shipmentId", cargo.getShipment() != null ? cargo.getShipment().getShipmentId() : null);
+        m.put("type", cargo.getType());
+        m.put("value", cargo.getValue());
+        m.put("weight", cargo.getWeight());
+        m.put("volume", cargo.getVolume());
+        m.put("weightUnit", cargo.getWeightUnit());
+        m.put("description", cargo.getDescription());
+        return m;
+    }
+
+    public static Map<String, Object> of(Route route) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("routeId", route.getRouteId());
+        m.put("originPort", route.getOriginPort());
+        m.put("destinationPort", route.getDestinationPort());
+        m.put("duration", route.getDuration());
+        m.put("status", route.getStatus());
+        m.put("distance", route.getDistance());
+        m.put("transportationMode", route.getTransportationMode());
+        m.put("cost", route.getCost());
+        return m;
+    }
+
+    public static Map<String, Object> of(Vendor vendor) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("vendorId", vendor.getVendorId());
+        m.put("name", vendor.getName());
+        m.put("contactInfo", vendor.getContactInfo());
+        m.put("serviceType", vendor.getServiceType());
+        m.put("isActive", vendor.getIsActive());
+        return m;
+    }
+
+    public static Map<String, Object> of(Delivery delivery) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("deliveryId", delivery.getDeliveryId());
+        m.put("shipmentId", delivery.getShipment() != null ? delivery.getShipment().getShipmentId() : null);
+        m.put("actualDeliveryDate", delivery.getActualDeliveryDate());
+        m.put("recipient", delivery.getRecipient());
+        m.put("status", delivery.getStatus());
+        return m;
+    }
+}
@@ -0,0 +1,35 @@
+package com.supplychain.event;
+
+public enum EntityType {
+    SHIPMENT("shipment-events", "/topic/shipments"),
+    CARGO("cargo-events", "/topic/cargo"),
+    ROUTE("route-events", "/topic/routes"),
+    VENDOR("vendor-events", "/topic/vendors"),
+    DELIVERY("delivery-events", "/topic/deliveries");
+
+    private final String topic;
+    private final String destination;
+
+    EntityType(String topic, String destination) {
+        this.topic = topic;
+        this.destination = destination;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /** STOMP destination that WebSocket clients subscribe to for this entity. */
+    public String getDestination() {
+        return destination;
+    }
+
+    public static EntityType fromTopic(String topic) {
+        for (EntityType type : values()) {
+            if (type.topic.equals(topic)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event topic: " + topic);
+    }
+}
@@ -0,0 +1,69 @@
+package com.supplychain.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Wire format of every Kafka event. Keys are kept short because they are repeated in every
+ * record: {@code v} schema version, {@code t} entity type, {@code id} entity id, {@code op}
+ * operation, {@code ch} changed fields, {@code ts} epoch millis, {@code seq} outbox sequence,
+ * {@code r} routing attributes and {@code rp} their previous values (see {@link EventRoutes}).
+ * <p>
+ * {@code ch} holds the full entity for creates, only the fields that changed for updates, and
+ * nothing for deletes. Batch envelopes have no {@code id}; they list the affected ids under
+ * {@code ch.ids} together with {@code ch.count}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventEnvelope {
+
+    public static final int VERSION = 1;
+
+    @JsonProperty("v")
+    private int version = VERSION;
+
+    @JsonProperty("t")
+    private EntityType entityType;
+
+    @JsonProperty("id")
+    private Long entityId;
+
+    @JsonProperty("op")
+    private Operation operation;
+
+    @JsonProperty("ch")
+    private Map<String, Object> changes;
+
+    @JsonProperty("ts")
+    private long timestamp;
+
+    @JsonProperty("seq")
+    private Long sequence;  // the outbox id: increases over successive writes of one entity; not commit order across entities
+
+    @JsonProperty("r")
+    private Map<String, Object> routing;  // current status/parent ids, present even when unchanged
+
+    @JsonProperty("rp")
+    private Map<String, Object> previousRouting;  // updates only: routing values that changed, as they were before
+
+    /** Short human-readable line, used for the WebSocket notifications. */
+    public String describe() {
+        String name = entityType.name().charAt(0) + entityType.name().substring(1).toLowerCase();
+        String verb = operation.name().toLowerCase();
+        if (entityId == null) {
+            return name + " batch " + verb + ": Count=" + (changes != null ? changes.get("count") : 0);
+        }
+        StringBuilder sb = new StringBuilder(name).append(' ').append(verb).append(": ID=").append(entityId);
+        if (operation == Operation.UPDATED && changes != null) {
+            changes.forEach((field, value) -> sb.append(", ").append(field).append('=').append(value));
+        }
+        return sb.toString();
+    }
+}
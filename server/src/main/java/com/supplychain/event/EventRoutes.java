@@ -0,0 +1,135 @@
+package com.supplychain.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps an event to the STOMP destinations and selector headers it is delivered with.
+ * <p>
+ * Every event goes to the entity's list topic (e.g. {@code /topic/shipments}). Events for a
+ * single entity also go to its own topic ({@code /topic/shipments/42}) and to the topics of its
+ * parents ({@code /topic/vendors/3/shipments}, {@code /topic/routes/7/shipments},
+ * {@code /topic/shipments/42/cargo}), so a detail page subscribes only to what it shows.
+ * <p>
+ * The routing attributes are also sent as message headers, so a subscription can be narrowed
+ * on the server with a selector such as {@code headers.status == 'Delayed'}.
+ * <p>
+ * An update that changes a routing attribute also carries the old value, so the entity's
+ * departure is seen as well as its arrival: the event also goes to the old parent's topic
+ * ({@code /topic/vendors/3/shipments} when the shipment moves from vendor 3 to 5), and the
+ * frame gets a {@code previous} header per changed attribute. A selector that should also hear
+ * entities leaving a state adds that header, e.g.
+ * {@code headers.status == 'Delayed' || headers.previousStatus == 'Delayed'}.
+ */
+public final class EventRoutes {
+
+    private EventRoutes() {
+    }
+
+    /** Attributes to route on, taken from the entity's current (or, for deletes, last) state. */
+    public static Map<String, Object> routingAttributes(EntityType type, Map<String, Object> snapshot) {
+        Map<String, Object> routing = new LinkedHashMap<>();
+        switch (type) {
+            case SHIPMENT -> {
+                putIfPresent(routing, "status", snapshot.get("status"));
+                putIfPresent(routing, "vendorId", snapshot.get("vendorId"));
+                putIfPresent(routing, "routeId", snapshot.get("routeId"));
+            }
+            case CARGO, DELIVERY -> putIfPresent(routing, "shipmentId", snapshot.get("shipmentId"));
+            case ROUTE -> putIfPresent(routing, "status", snapshot.get("status"));
+            case VENDOR -> putIfPresent(routing, "isActive", snapshot.get("isActive"));
+        }
+        return routing.isEmpty() ? null : routing;
+    }
+
+    /**
+     * Entries of {@code before} whose value is different (or absent) in {@code after}, or null
+     * when there are none. Both are routing attribute maps.
+     */
+    public static Map<String, Object> changedAttributes(Map<String, Object> before, Map<String, Object> after) {
+        if (before == null) {
+            return null;
+        }
+        Map<String, Object> changed = new LinkedHashMap<>();
+        before.forEach((key, value) -> {
+            if (after == null || !Objects.equals(value, after.get(key))) {
+                changed.put(key, value);
+            }
+        });
+        return changed.isEmpty() ? null : changed;
+    }
+
+    public static List<String> destinations(EventEnvelope envelope) {
+        EntityType type = envelope.getEntityType();
+        List<String> destinations = new ArrayList<>(4);
+        destinations.add(type.getDestination());
+        if (envelope.getEntityId() == null) {
+            return destinations;  // batch envelope
+        }
+        destinations.add(type.getDestination() + "/" + envelope.getEntityId());
+
+        addParentTopics(destinations, type, envelope.getRouting());
+        addParentTopics(destinations, type, envelope.getPreviousRouting());  // the parents it left
+        return destinations;
+    }
+
+    private static void addParentTopics(List<String> destinations, EntityType type, Map<String, Object> routing) {
+        if (routing == null) {
+            return;
+        }
+        switch (type) {
+            case SHIPMENT -> {
+                if (routing.get("vendorId") != null) {
+                    addOnce(destinations, EntityType.VENDOR.getDestination() + "/" + routing.get("vendorId") + "/shipments");
+                }
+                if (routing.get("routeId") != null) {
+                    addOnce(destinations, EntityType.ROUTE.getDestination() + "/" + routing.get("routeId") + "/shipments");
+                }
+            }
+            case CARGO -> {
+                if (routing.get("shipmentId") != null) {
+                    addOnce(destinations, EntityType.SHIPMENT.getDestination() + "/" + routing.get("shipmentId") + "/cargo");
+                }
+            }
+            case DELIVERY -> {
+                if (routing.get("shipmentId") != null) {
+                    addOnce(destinations, EntityType.SHIPMENT.getDestination() + "/" + routing.get("shipmentId") + "/deliveries");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void addOnce(List<String> destinations, String destination) {
+        if (!destinations.contains(destination)) {
+            destinations.add(destination);
+        }
+    }
+
+    /**
+     * Message headers for selector-based subscriptions. Entity ids are left out on purpose: each
+     * entity has its own topic, and frames that coalesce several entities share these headers.
+     */
+    public static Map<String, Object> headers(EventEnvelope envelope) {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        headers.put("operation", envelope.getOperation().name());
+        if (envelope.getRouting() != null) {
+            headers.putAll(envelope.getRouting());
+        }
+        if (envelope.getPreviousRouting() != null) {
+            envelope.getPreviousRouting().forEach((key, value) ->
+                    headers.put("previous" + Character.toUpperCase(key.charAt(0)) + key.substring(1), value));
+        }
+        return headers;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.supplychain.event;
+
+public enum Operation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -7,22 +7,35 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "cargo")
+@Table(name = "cargo",
+       indexes = {
+           @Index(name = "idx_cargo_created_at_id", columnList = "created_at, cargo_id"),  // keyset pagination
+           @Index(name = "idx_cargo_shipment_id", columnList = "shipment_id"),
+           @Index(name = "idx_cargo_shipment_created_at_id", columnList = "shipment_id, created_at, cargo_id"),  // manifest pages
+           @Index(name = "idx_cargo_updated_at", columnList = "updated_at")  // change feed
+       })
 public class Cargo {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (see db/migration/add_cargo_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cargo_seq")
+    @SequenceGenerator(name = "cargo_seq", sequenceName = "cargo_seq", allocationSize = 50)
     private Long cargoId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Shipment shipment;
 
     @NotBlank(message = "Type is required")
@@ -49,7 +62,16 @@ public class Cargo {
     @Column(name = "weight_unit", length = 10)  // Not in original specs, but from context
     private String weightUnit;
 
+
+    @Version  // optimistic lock; also the basis of this entity's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
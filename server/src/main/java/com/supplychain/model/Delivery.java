@@ -6,21 +6,30 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "deliveries")
+@Table(name = "deliveries",
+       indexes = {
+           @Index(name = "idx_deliveries_shipment_id", columnList = "shipment_id"),
+           @Index(name = "idx_deliveries_updated_at", columnList = "updated_at")  // change feed
+       })
 public class Delivery {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long deliveryId;
 
     @NotNull(message = "Shipment is required")
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = false)  // NOT NULL
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Shipment shipment;
 
     @Column(name = "actual_delivery_date", nullable = true)  // TIMESTAMP, nullable
@@ -36,7 +45,16 @@ public class Delivery {
     @Column(name = "status", nullable = false, length = 20)  // Default 'Pending' via field init if needed
     private String status = "Pending";  // Java default for insert
 
+
+    @Version  // optimistic lock; also the basis of this entity's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.supplychain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka message waiting to be relayed. Rows are written in the same transaction as the entity
+ * change they describe and deleted by {@link com.supplychain.service.OutboxRelay} once the broker
+ * has acknowledged them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    // One nextval per event, not a pooled block: with pooling each instance hands out ids from its
+    // own block, so a later write on one instance could get a smaller id than an earlier write on
+    // another and be relayed first. Gaps from rolled-back writes are harmless.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;  // relay order
+
+    @Column(name = "topic", nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "message_key", length = 100)
+    private String messageKey;  // entity id, so all events of one entity land on one partition
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent(String topic, String messageKey, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+    }
+}
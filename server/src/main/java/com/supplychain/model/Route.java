@@ -7,14 +7,19 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)  // reference data, see CacheConfig
 @Table(name = "route",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"origin_port", "destination_port"}))  // UNIQUE constraint via annotation
+       uniqueConstraints = @UniqueConstraint(columnNames = {"origin_port", "destination_port"}),  // UNIQUE constraint via annotation
+       indexes = @Index(name = "idx_route_updated_at", columnList = "updated_at"))  // change feed
 public class Route {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,7 +54,16 @@ public class Route {
     @Column(name = "cost")
     private Double cost;  // Route cost
 
+
+    @Version  // optimistic lock; also the basis of this entity's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,7 +19,14 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "shipment")
+@Table(name = "shipment",
+       indexes = {
+           @Index(name = "idx_shipment_created_at_id", columnList = "created_at, shipment_id"),  // keyset pagination
+           @Index(name = "idx_shipment_route_id", columnList = "route_id"),
+           @Index(name = "idx_shipment_vendor_id", columnList = "vendor_id"),
+           @Index(name = "idx_shipment_status", columnList = "status"),
+           @Index(name = "idx_shipment_updated_at", columnList = "updated_at")  // change feed
+       })
 public class Shipment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,14 +50,18 @@ public class Shipment {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate estimatedDelivery;  // Using LocalDate for DATE
 
-    // FK to Route (NULLABLE - Optional assignment)
-    @ManyToOne(fetch = FetchType.EAGER)
+    // FK to Route (NULLABLE - Optional assignment). Lazy: queries that need it fetch it explicitly
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Route assignedRoute;
 
     // FK to Vendor (NULLABLE - Optional assignment)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vendor_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Vendor assignedVendor;
 
     @Size(max = 20, message = "Shipment code cannot exceed 20 characters")
@@ -57,8 +70,15 @@ public class Shipment {
 
     @OneToMany(mappedBy = "shipment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @com.fasterxml.jackson.annotation.JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Cargo> cargoItems;
 
+
+    @Version  // optimistic lock; also the basis of this entity's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
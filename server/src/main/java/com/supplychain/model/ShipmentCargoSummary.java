@@ -0,0 +1,50 @@
+package com.supplychain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of a shipment's cargo, so a manifest summary is one primary-key read instead of
+ * an aggregate over cargo rows. A zero row is created with its shipment (or a filled one, when the
+ * shipment is created together with its cargo), and is then only changed through the increments
+ * in {@link com.supplychain.service.ShipmentManifestService}, inside the same transaction as the
+ * cargo change.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "shipment_cargo_summary")
+public class ShipmentCargoSummary {
+
+    @Id
+    @Column(name = "shipment_id")
+    private Long shipmentId;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    @Column(name = "total_volume", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalVolume = BigDecimal.ZERO;
+
+    // Every cargo weight converted with WeightUnits.toKilograms before it is added
+    @Column(name = "total_weight_kg", nullable = false, precision = 19, scale = 3)
+    private BigDecimal totalWeightKg = BigDecimal.ZERO;
+
+    @Version  // bumped by every increment; also the basis of the summary's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ShipmentCargoSummary(Long shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+}
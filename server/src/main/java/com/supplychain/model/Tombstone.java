@@ -0,0 +1,43 @@
+package com.supplychain.model;
+
+import com.supplychain.event.EntityType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted entity, so {@code GET /api/sync} can tell clients what to drop. Written in
+ * the same transaction as the delete and pruned after {@code sync.tombstone-retention-hours}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "tombstone",
+       indexes = @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at"))
+public class Tombstone {
+
+    // Pooled sequence so cascaded deletes can batch their tombstone inserts (see db/migration/add_sync_change_feed.sql)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstone_seq")
+    @SequenceGenerator(name = "tombstone_seq", sequenceName = "tombstone_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    public Tombstone(EntityType entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+}
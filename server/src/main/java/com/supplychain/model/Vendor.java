@@ -4,13 +4,18 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "vendor")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)  // reference data, see CacheConfig
+@Table(name = "vendor",
+       indexes = @Index(name = "idx_vendor_updated_at", columnList = "updated_at"))  // change feed
 public class Vendor {
 
     @Id
@@ -34,7 +39,16 @@ public class Vendor {
     @Column(name = "is_active", nullable = true)
     private Boolean isActive = true;  // Default to active
 
+
+    @Version  // optimistic lock; also the basis of this entity's ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp  // Auto-sets on persist
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.supplychain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Normalizes {@link Cargo#getWeight()} to kilograms. Cargo without a unit is treated as kg,
+ * which is what the UI defaults to.
+ */
+public final class WeightUnits {
+
+    private static final BigDecimal POUND_IN_KG = new BigDecimal("0.45359237");
+    private static final BigDecimal TONNE_IN_KG = new BigDecimal("1000");
+    private static final BigDecimal GRAM_IN_KG = new BigDecimal("0.001");
+
+    private WeightUnits() {
+    }
+
+    public static BigDecimal toKilograms(BigDecimal weight, String unit) {
+        if (weight == null) {
+            return BigDecimal.ZERO;
+        }
+        return weight.multiply(factor(unit)).setScale(3, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal factor(String unit) {
+        if (unit == null) {
+            return BigDecimal.ONE;
+        }
+        switch (unit.trim().toLowerCase(Locale.ROOT)) {
+            case "lb":
+            case "lbs":
+                return POUND_IN_KG;
+            case "t":
+            case "ton":
+            case "tons":
+            case "tonne":
+            case "tonnes":
+                return TONNE_IN_KG;
+            case "g":
+                return GRAM_IN_KG;
+            default:
+                return BigDecimal.ONE;
+        }
+    }
+}
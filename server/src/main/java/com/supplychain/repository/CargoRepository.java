@@ -1,8 +1,89 @@
 package com.supplychain.repository;
 
+import com.supplychain.dto.CargoFilter;
+import com.supplychain.dto.CargoView;
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.dto.VersionStamp;
 import com.supplychain.model.Cargo;
+import com.supplychain.model.Shipment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface CargoRepository extends JpaRepository<Cargo, Long> {}
\ No newline at end of file
+public interface CargoRepository extends JpaRepository<Cargo, Long>, JpaSpecificationExecutor<Cargo> {
+
+    // Rows of [weightUnit, count, sum(value), sum(weight)]; grouped by unit so weights can be normalized
+    @Query("SELECT c.weightUnit, COUNT(c), COALESCE(SUM(c.value), 0), COALESCE(SUM(c.weight), 0) FROM Cargo c GROUP BY c.weightUnit")
+    List<Object[]> sumGroupedByWeightUnit();
+
+    // The shipment is lazy; the read paths below fetch it in the same statement for CargoView
+    @EntityGraph(attributePaths = "shipment")
+    @Query("SELECT c FROM Cargo c")
+    List<Cargo> findAllWithShipment();
+
+    @EntityGraph(attributePaths = "shipment")
+    Optional<Cargo> findWithShipmentByCargoId(Long cargoId);
+
+    @EntityGraph(attributePaths = "shipment")
+    List<Cargo> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    // Versions of the cargo and of the shipment embedded in its JSON
+    @Query("SELECT c.version, s.version FROM Cargo c LEFT JOIN c.shipment s WHERE c.cargoId = :id")
+    List<Object[]> findVersions(@Param("id") Long id);
+
+    // [count, max(updatedAt), sum(version)]: changes whenever a row is added, removed or updated
+    @Query("SELECT new com.supplychain.dto.VersionStamp(COUNT(x), MAX(x.updatedAt), COALESCE(SUM(x.version), 0)) FROM Cargo x")
+    VersionStamp versionStamp();
+
+    // Unassigned cargo for consolidation, as rows of [cargoId, type, value, weight, volume, weightUnit, description]
+    @Query("SELECT c.cargoId, c.type, c.value, c.weight, c.volume, c.weightUnit, c.description FROM Cargo c " +
+           "WHERE c.shipment IS NULL ORDER BY c.cargoId")
+    List<Object[]> findUnassignedRows(Pageable limit);
+
+    @Query("SELECT c.cargoId, c.type, c.value, c.weight, c.volume, c.weightUnit, c.description FROM Cargo c " +
+           "WHERE c.shipment IS NULL AND c.type = :type ORDER BY c.cargoId")
+    List<Object[]> findUnassignedRowsByType(@Param("type") String type, Pageable limit);
+
+    @Query("SELECT c.cargoId, c.type, c.value, c.weight, c.volume, c.weightUnit, c.description FROM Cargo c " +
+           "WHERE c.shipment IS NULL AND c.cargoId IN :ids ORDER BY c.cargoId")
+    List<Object[]> findUnassignedRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Set-based move onto a shipment; the null guard skips cargo assigned concurrently
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cargo c SET c.shipment = :shipment, c.updatedAt = :now, c.version = c.version + 1 " +
+           "WHERE c.cargoId IN :ids AND c.shipment IS NULL")
+    int assignShipment(@Param("ids") Collection<Long> ids, @Param("shipment") Shipment shipment, @Param("now") LocalDateTime now);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction for the fetch size to apply.
+    // Exports only read association ids, which lazy references carry without a join
+    @Query("SELECT c FROM Cargo c ORDER BY c.cargoId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Cargo> streamAll();
+
+    default CursorPage<CargoView> findPage(CargoFilter filter, KeysetCursor after, int limit) {
+        List<CargoView> rows = findBy(CargoSpecifications.page(filter, after),
+                q -> q.sortBy(KeysetSpecifications.newestFirst(CargoSpecifications.ID)).limit(limit + 1).all())
+                .stream().map(CargoView::of).toList();
+        return KeysetSpecifications.toPage(rows, limit,
+                c -> new KeysetCursor(c.getCreatedAt(), c.getCargoId()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.supplychain.repository;
+
+import com.supplychain.dto.CargoFilter;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Shipment;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CargoSpecifications {
+
+    public static final String ID = "cargoId";
+
+    private CargoSpecifications() {
+    }
+
+    /**
+     * Filters plus keyset position for one page of cargo. The shipment is fetch-joined (CargoView
+     * shows only its own columns), and the shipment filters reuse that same join.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Cargo> page(CargoFilter filter, KeysetCursor after) {
+        return (root, query, cb) -> {
+            From<Cargo, Shipment> shipment;
+            if (KeysetSpecifications.isCountQuery(query.getResultType())) {
+                shipment = root.join("shipment", JoinType.LEFT);
+            } else {
+                Fetch<Cargo, Shipment> fetch = root.fetch("shipment", JoinType.LEFT);
+                shipment = (From<Cargo, Shipment>) fetch;
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.getType()));
+            }
+            if (filter.getShipmentId() != null) {
+                predicates.add(cb.equal(shipment.get(ShipmentSpecifications.ID), filter.getShipmentId()));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(shipment.get("status"), filter.getStatus()));
+            }
+            if (filter.getOrigin() != null) {
+                predicates.add(cb.equal(shipment.get("origin"), filter.getOrigin()));
+            }
+            if (filter.getDestination() != null) {
+                predicates.add(cb.equal(shipment.get("destination"), filter.getDestination()));
+            }
+            if (filter.getVendorId() != null) {
+                predicates.add(cb.equal(shipment.get("assignedVendor").get("vendorId"), filter.getVendorId()));
+            }
+            if (filter.getRouteId() != null) {
+                predicates.add(cb.equal(shipment.get("assignedRoute").get("routeId"), filter.getRouteId()));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get(KeysetSpecifications.CREATED_AT), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get(KeysetSpecifications.CREATED_AT), filter.getCreatedTo()));
+            }
+            if (after != null) {
+                predicates.add(KeysetSpecifications.olderThan(root, cb, after, ID));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,13 +1,97 @@
 package com.supplychain.repository;
 
+import com.supplychain.dto.DeliveryView;
+import com.supplychain.dto.VersionStamp;
 import com.supplychain.model.Delivery;
 import com.supplychain.model.Shipment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     boolean existsByShipment(Shipment shipment);
     Optional<Delivery> findByShipment(Shipment shipment);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "shipment")
+    Optional<Delivery> findWithShipmentByDeliveryId(Long deliveryId);
+
+    long countByActualDeliveryDateGreaterThanEqualAndActualDeliveryDateLessThan(LocalDateTime from, LocalDateTime to);
+
+    // Versions of the delivery and of the shipment embedded in its JSON
+    @Query("SELECT d.version, s.version FROM Delivery d JOIN d.shipment s WHERE d.deliveryId = :id")
+    List<Object[]> findVersions(@Param("id") Long id);
+
+    // [count, max(updatedAt), sum(version)]: changes whenever a row is added, removed or updated
+    @Query("SELECT new com.supplychain.dto.VersionStamp(COUNT(x), MAX(x.updatedAt), COALESCE(SUM(x.version), 0)) FROM Delivery x")
+    VersionStamp versionStamp();
+
+    /**
+     * Deliveries whose shipment has status {@code shipmentStatus}, newest first, joined and
+     * filtered in one statement. The optional bounds filter on actualDeliveryDate
+     * ({@code from} inclusive, {@code to} exclusive); the optional cursor seeks past
+     * (createdAt, deliveryId) for keyset pagination.
+     */
+    @Query("SELECT new com.supplychain.dto.DeliveryView(d.deliveryId, d.actualDeliveryDate, d.recipient, d.status, " +
+           "d.createdAt, s.shipmentId, s.origin, s.destination, s.status) " +
+           "FROM Delivery d JOIN d.shipment s " +
+           "WHERE s.status = :shipmentStatus " +
+           "AND (:from IS NULL OR d.actualDeliveryDate >= :from) " +
+           "AND (:to IS NULL OR d.actualDeliveryDate < :to) " +
+           "AND (:afterCreatedAt IS NULL OR d.createdAt < :afterCreatedAt " +
+           "     OR (d.createdAt = :afterCreatedAt AND d.deliveryId < :afterId)) " +
+           "ORDER BY d.createdAt DESC, d.deliveryId DESC")
+    List<DeliveryView> findViewsByShipmentStatus(@Param("shipmentStatus") String shipmentStatus,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
+
+    /**
+     * Deliveries changed at or after {@code since}, or all when it is null. A shipment change
+     * counts too, since the view shows the shipment's status.
+     */
+    @Query("SELECT new com.supplychain.dto.DeliveryView(d.deliveryId, d.actualDeliveryDate, d.recipient, d.status, " +
+           "d.createdAt, s.shipmentId, s.origin, s.destination, s.status) " +
+           "FROM Delivery d JOIN d.shipment s " +
+           "WHERE :since IS NULL OR d.updatedAt >= :since OR s.updatedAt >= :since")
+    List<DeliveryView> findViewsChangedSince(@Param("since") LocalDateTime since);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction for the fetch size to apply.
+    // Exports only read association ids, which lazy references carry without a join
+    @Query("SELECT d FROM Delivery d ORDER BY d.deliveryId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Delivery> streamAll();
+
+    // Creates the missing delivery records for a batch of shipments in one statement
+    @Modifying
+    @Query(value = "INSERT INTO deliveries (shipment_id, actual_delivery_date, recipient, status, created_at, updated_at, version) " +
+                   "SELECT s.shipment_id, CAST(s.estimated_delivery AS TIMESTAMP), 'Customer at ' || s.destination, 'Pending', :now, :now, 0 " +
+                   "FROM shipment s WHERE s.shipment_id IN (:shipmentIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM deliveries d WHERE d.shipment_id = s.shipment_id)",
+           nativeQuery = true)
+    int insertMissingForShipments(@Param("shipmentIds") Collection<Long> shipmentIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT d FROM Delivery d JOIN FETCH d.shipment s LEFT JOIN FETCH s.assignedRoute LEFT JOIN FETCH s.assignedVendor " +
+           "WHERE s.shipmentId IN :shipmentIds AND d.createdAt = :createdAt")
+    List<Delivery> findCreatedForShipments(@Param("shipmentIds") Collection<Long> shipmentIds, @Param("createdAt") LocalDateTime createdAt);
+
+    @Query("SELECT d FROM Delivery d JOIN FETCH d.shipment s WHERE s.status <> :shipmentStatus")
+    List<Delivery> findByShipmentStatusNot(@Param("shipmentStatus") String shipmentStatus);
+}
@@ -0,0 +1,54 @@
+package com.supplychain.repository;
+
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.KeysetCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared pieces for keyset ("seek") pagination over (createdAt DESC, id DESC).
+ * Pages are fetched with {@code WHERE (created_at, id) < (cursor)} instead of OFFSET,
+ * so every page costs one index range scan regardless of how deep the client has paged.
+ */
+public final class KeysetSpecifications {
+
+    public static final String CREATED_AT = "createdAt";
+
+    private KeysetSpecifications() {
+    }
+
+    public static Sort newestFirst(String idAttribute) {
+        return Sort.by(Sort.Direction.DESC, CREATED_AT).and(Sort.by(Sort.Direction.DESC, idAttribute));
+    }
+
+    public static Predicate olderThan(Root<?> root, CriteriaBuilder cb, KeysetCursor cursor, String idAttribute) {
+        Path<LocalDateTime> createdAt = root.get(CREATED_AT);
+        Path<Long> id = root.get(idAttribute);
+        return cb.or(
+                cb.lessThan(createdAt, cursor.getCreatedAt()),
+                cb.and(cb.equal(createdAt, cursor.getCreatedAt()), cb.lessThan(id, cursor.getId())));
+    }
+
+    /**
+     * Builds a page from a query that asked for {@code limit + 1} rows; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode(), true);
+    }
+
+    public static boolean isCountQuery(Class<?> resultType) {
+        return resultType == Long.class || resultType == long.class;
+    }
+}
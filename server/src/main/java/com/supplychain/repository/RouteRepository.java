@@ -1,8 +1,49 @@
 package com.supplychain.repository;
 
+import com.supplychain.config.CacheConfig;
+import com.supplychain.dto.VersionStamp;
 import com.supplychain.model.Route;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface RouteRepository extends JpaRepository<Route, Long> {}
\ No newline at end of file
+public interface RouteRepository extends JpaRepository<Route, Long> {
+
+    // Results kept in the second-level query cache; rows come from the Route entity region
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REFERENCE_LISTS_REGION)
+    })
+    List<Route> findAll();
+
+    long countByStatus(String status);
+    List<Route> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT r.version FROM Route r WHERE r.routeId = :id")
+    List<Long> findVersion(@Param("id") Long id);
+
+    // Rows of [routeId, originPort, destinationPort, transportationMode, status, cost, duration, distance] for
+    // the route planner. Scalar columns bypass the second-level cache, so a change event is never answered from
+    // a cached row another instance has not evicted yet.
+    @Query("SELECT r.routeId, r.originPort, r.destinationPort, r.transportationMode, r.status, r.cost, r.duration, r.distance " +
+           "FROM Route r")
+    List<Object[]> findNetworkRows();
+
+    @Query("SELECT r.routeId, r.originPort, r.destinationPort, r.transportationMode, r.status, r.cost, r.duration, r.distance " +
+           "FROM Route r WHERE r.routeId IN :ids")
+    List<Object[]> findNetworkRows(@Param("ids") Collection<Long> ids);
+
+    // [count, max(updatedAt), sum(version)]: changes whenever a row is added, removed or updated
+    @Query("SELECT new com.supplychain.dto.VersionStamp(COUNT(x), MAX(x.updatedAt), COALESCE(SUM(x.version), 0)) FROM Route x")
+    VersionStamp versionStamp();
+}
@@ -0,0 +1,40 @@
+package com.supplychain.repository;
+
+import com.supplychain.model.ShipmentCargoSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ShipmentCargoSummaryRepository extends JpaRepository<ShipmentCargoSummary, Long> {
+
+    // Relative update, so concurrent cargo writes for one shipment serialize on the row lock instead of losing updates
+    @Modifying
+    @Query("UPDATE ShipmentCargoSummary s SET s.itemCount = s.itemCount + :count, s.totalValue = s.totalValue + :value, " +
+           "s.totalVolume = s.totalVolume + :volume, s.totalWeightKg = s.totalWeightKg + :weightKg, " +
+           "s.version = s.version + 1, s.updatedAt = :now WHERE s.shipmentId = :shipmentId")
+    int addTotals(@Param("shipmentId") Long shipmentId, @Param("count") long count, @Param("value") BigDecimal value,
+                  @Param("volume") BigDecimal volume, @Param("weightKg") BigDecimal weightKg, @Param("now") LocalDateTime now);
+
+    // Creates a shipment's zero row unless it already exists
+    @Modifying
+    @Query(value = "INSERT INTO shipment_cargo_summary (shipment_id, item_count, total_value, total_volume, total_weight_kg, version, updated_at) " +
+                   "SELECT :shipmentId, 0, 0, 0, 0, 0, :now " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM shipment_cargo_summary WHERE shipment_id = :shipmentId)",
+           nativeQuery = true)
+    int insertEmpty(@Param("shipmentId") Long shipmentId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ShipmentCargoSummary s WHERE s.shipmentId = :shipmentId")
+    int deleteByShipmentId(@Param("shipmentId") Long shipmentId);
+
+    // Empty if the shipment has never had cargo
+    @Query("SELECT s.version FROM ShipmentCargoSummary s WHERE s.shipmentId = :shipmentId")
+    List<Long> findVersion(@Param("shipmentId") Long shipmentId);
+}
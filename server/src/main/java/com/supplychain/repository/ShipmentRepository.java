@@ -1,8 +1,100 @@
 package com.supplychain.repository;
 
+import com.supplychain.dto.CursorPage;
+import com.supplychain.dto.KeysetCursor;
+import com.supplychain.dto.ShipmentFilter;
+import com.supplychain.dto.ShipmentView;
+import com.supplychain.dto.VersionStamp;
 import com.supplychain.model.Shipment;
+import com.supplychain.model.Vendor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ShipmentRepository extends JpaRepository<Shipment, Long> {}
\ No newline at end of file
+public interface ShipmentRepository extends JpaRepository<Shipment, Long>, JpaSpecificationExecutor<Shipment> {
+
+    // Rows of [status, count]
+    @Query("SELECT s.status, COUNT(s) FROM Shipment s GROUP BY s.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT s.shipmentId FROM Shipment s WHERE s.shipmentId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Route and vendor are lazy; the read paths below fetch them in the same statement for ShipmentView
+    @EntityGraph(attributePaths = {"assignedRoute", "assignedVendor"})
+    @Query("SELECT s FROM Shipment s")
+    List<Shipment> findAllWithReferences();
+
+    @EntityGraph(attributePaths = {"assignedRoute", "assignedVendor"})
+    Optional<Shipment> findWithReferencesByShipmentId(Long shipmentId);
+
+    @EntityGraph(attributePaths = {"assignedRoute", "assignedVendor"})
+    List<Shipment> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    // Versions of the shipment and of the route and vendor embedded in its JSON; empty if not found
+    @Query("SELECT s.version, r.version, v.version FROM Shipment s LEFT JOIN s.assignedRoute r LEFT JOIN s.assignedVendor v " +
+           "WHERE s.shipmentId = :id")
+    List<Object[]> findVersions(@Param("id") Long id);
+
+    // [count, max(updatedAt), sum(version)]: changes whenever a row is added, removed or updated
+    @Query("SELECT new com.supplychain.dto.VersionStamp(COUNT(x), MAX(x.updatedAt), COALESCE(SUM(x.version), 0)) FROM Shipment x")
+    VersionStamp versionStamp();
+
+    // Set-based transition; the status guard skips rows that reached the target status concurrently
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Shipment s SET s.status = :status, s.updatedAt = :now, s.version = s.version + 1 " +
+           "WHERE s.shipmentId IN :ids AND s.status <> :status")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    // Rows of [vendorId, open shipments]; vendors without open shipments are absent
+    @Query("SELECT v.vendorId, COUNT(s) FROM Shipment s JOIN s.assignedVendor v WHERE s.status NOT IN :closed GROUP BY v.vendorId")
+    List<Object[]> countOpenByVendor(@Param("closed") Collection<String> closedStatuses);
+
+    // Set-based assignment; the null guard skips rows given a vendor concurrently
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Shipment s SET s.assignedVendor = :vendor, s.updatedAt = :now, s.version = s.version + 1 " +
+           "WHERE s.shipmentId IN :ids AND s.assignedVendor IS NULL")
+    int assignVendor(@Param("ids") Collection<Long> ids, @Param("vendor") Vendor vendor, @Param("now") LocalDateTime now);
+
+    // Rows of [shipmentId, vendorId] for those of the given shipments that have a vendor
+    @Query("SELECT s.shipmentId, v.vendorId FROM Shipment s JOIN s.assignedVendor v WHERE s.shipmentId IN :ids")
+    List<Object[]> findVendorIds(@Param("ids") Collection<Long> ids);
+
+    // Rows of [shipmentId, totalWeightKg, totalVolume] for the lane's shipments in the given statuses, oldest first
+    @Query("SELECT s.shipmentId, COALESCE(m.totalWeightKg, 0), COALESCE(m.totalVolume, 0) FROM Shipment s " +
+           "LEFT JOIN ShipmentCargoSummary m ON m.shipmentId = s.shipmentId " +
+           "WHERE s.origin = :origin AND s.destination = :destination AND s.status IN :statuses ORDER BY s.shipmentId")
+    List<Object[]> findLaneLoads(@Param("origin") String origin, @Param("destination") String destination,
+                                 @Param("statuses") Collection<String> statuses);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction for the fetch size to apply.
+    // Exports only read association ids, which lazy references carry without a join
+    @Query("SELECT s FROM Shipment s ORDER BY s.shipmentId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Shipment> streamAll();
+
+    default CursorPage<ShipmentView> findPage(ShipmentFilter filter, KeysetCursor after, int limit) {
+        List<ShipmentView> rows = findBy(ShipmentSpecifications.page(filter, after),
+                q -> q.sortBy(KeysetSpecifications.newestFirst(ShipmentSpecifications.ID)).limit(limit + 1).all())
+                .stream().map(ShipmentView::of).toList();
+        return KeysetSpecifications.toPage(rows, limit,
+                s -> new KeysetCursor(s.getCreatedAt(), s.getShipmentId()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.supplychain.repository;
+
+import com.supplychain.model.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    List<Tombstone> findByDeletedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    // PostgreSQL only: one row of [seconds since the oldest open transaction of another client
+    // session started, among those open at most maxSeconds (0 when there is none); number of
+    // sessions open longer, which are left out]. Measured on the database clock, so it needs no
+    // agreement with ours.
+    @Query(value = "SELECT CAST(COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - MIN(xact_start) " +
+                   "FILTER (WHERE xact_start >= clock_timestamp() - make_interval(secs => :maxSeconds))), 0) AS DOUBLE PRECISION), " +
+                   "COUNT(*) FILTER (WHERE xact_start < clock_timestamp() - make_interval(secs => :maxSeconds)) " +
+                   "FROM pg_stat_activity WHERE datname = current_database() AND backend_type = 'client backend' " +
+                   "AND pid <> pg_backend_pid() AND xact_start IS NOT NULL",
+           nativeQuery = true)
+    List<Object[]> openTransactionAges(@Param("maxSeconds") double maxSeconds);
+}
@@ -1,8 +1,37 @@
 package com.supplychain.repository;
 
+import com.supplychain.config.CacheConfig;
+import com.supplychain.dto.VersionStamp;
 import com.supplychain.model.Vendor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
-public interface VendorRepository extends JpaRepository<Vendor, Long> {}
\ No newline at end of file
+public interface VendorRepository extends JpaRepository<Vendor, Long> {
+
+    // Results kept in the second-level query cache; rows come from the Vendor entity region
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REFERENCE_LISTS_REGION)
+    })
+    List<Vendor> findAll();
+
+    long countByIsActiveTrue();
+    List<Vendor> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT v.version FROM Vendor v WHERE v.vendorId = :id")
+    List<Long> findVersion(@Param("id") Long id);
+
+    // [count, max(updatedAt), sum(version)]: changes whenever a row is added, removed or updated
+    @Query("SELECT new com.supplychain.dto.VersionStamp(COUNT(x), MAX(x.updatedAt), COALESCE(SUM(x.version), 0)) FROM Vendor x")
+    VersionStamp versionStamp();
+}
@@ -2,20 +2,23 @@ package com.supplychain.service;
 
 import com.supplychain.model.User;
 import com.supplychain.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashingService;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, UserCache userCache, PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.passwordHashingService = passwordHashingService;
     }
 
     public User registerUser(String email, String password, String name) {
@@ -25,29 +28,42 @@ public class AuthService {
 
         User user = new User();
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encode(password));
         user.setName(name);
         user.setProvider("local");
         user.setRole("OPERATOR");
         user.setIsActive(true);
 
-        return userRepository.save(user);
+        return userCache.save(user);
     }
 
-    public Optional<User> authenticateUser(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            if (user.getProvider().equals("local") && passwordEncoder.matches(password, user.getPassword())) {
-                return Optional.of(user);
+    /**
+     * Checks the credentials on the hashing executor. Unknown emails and accounts without a local
+     * password still go through one BCrypt check, so failures take as long as a wrong password.
+     * Completes exceptionally with RejectedExecutionException when hashing is saturated.
+     */
+    public CompletableFuture<Optional<User>> authenticateUser(String email, String password) {
+        Optional<User> userOpt = userCache.findByEmail(email)
+                .filter(user -> "local".equals(user.getProvider()));
+        String encodedPassword = userOpt.map(User::getPassword).orElse(null);
+
+        return passwordHashingService.matches(password, encodedPassword)
+                .thenApply(matched -> matched ? userOpt : Optional.empty());
+    }
+
+    // Signup is rare enough to wait for the hash on the request thread; shedding still applies
+    private String encode(String password) {
+        try {
+            return passwordHashingService.encode(password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
         }
-        
-        return Optional.empty();
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.findByEmail(email);
     }
 }
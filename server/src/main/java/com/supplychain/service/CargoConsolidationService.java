@@ -0,0 +1,377 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.ConsolidationPlan;
+import com.supplychain.dto.ConsolidationRequest;
+import com.supplychain.dto.ConsolidationResult;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Shipment;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.ShipmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups unassigned cargo into shipments for one origin/destination lane. Cargo rows carry no lane
+ * of their own, so the caller names the lane and selects the cargo (by id, or all unassigned cargo
+ * optionally of one type).
+ * <p>
+ * {@link #plan} reads the cargo and the lane's open shipments with their stored manifest totals,
+ * and runs {@link CargoConsolidationSolver} outside any transaction. {@link #commit} takes that plan
+ * back and applies it in one transaction: the new shipments are inserted, the cargo is moved with
+ * one set-based UPDATE per shipment, and the manifest totals get one write per shipment. Every
+ * cargo row is checked again first, so a plan that has gone stale is rejected instead of partly
+ * applied.
+ */
+@Service
+public class CargoConsolidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CargoConsolidationService.class);
+    private static final int ID_CHUNK = 1000;  // ids per IN list, well under driver parameter limits
+    private static final String NEW_SHIPMENT_STATUS = "Created";
+
+    private final CargoRepository cargoRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentManifestService shipmentManifestService;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal defaultMaxWeightKg;
+    private final BigDecimal defaultMaxVolume;
+    private final List<String> openStatuses;
+    private final long defaultBudgetMs;
+    private final long maxBudgetMs;
+    private final int maxItems;
+    private final ForkJoinPool pool;
+    private final CargoConsolidationSolver solver;
+
+    public CargoConsolidationService(CargoRepository cargoRepository,
+                                     ShipmentRepository shipmentRepository,
+                                     ShipmentManifestService shipmentManifestService,
+                                     KafkaProducerService kafkaProducerService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${cargo.consolidation.max-weight-kg:20000}") BigDecimal maxWeightKg,
+                                     @Value("${cargo.consolidation.max-volume:33}") BigDecimal maxVolume,
+                                     @Value("${cargo.consolidation.open-statuses:Created}") List<String> openStatuses,
+                                     @Value("${cargo.consolidation.time-budget-ms:2000}") long defaultBudgetMs,
+                                     @Value("${cargo.consolidation.max-time-budget-ms:30000}") long maxBudgetMs,
+                                     @Value("${cargo.consolidation.max-items:200000}") int maxItems,
+                                     @Value("${cargo.consolidation.parallelism:0}") int parallelism) {
+        this.cargoRepository = cargoRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.shipmentManifestService = shipmentManifestService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultMaxWeightKg = maxWeightKg;
+        this.defaultMaxVolume = maxVolume;
+        this.openStatuses = openStatuses.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.defaultBudgetMs = defaultBudgetMs;
+        this.maxBudgetMs = maxBudgetMs;
+        this.maxItems = maxItems;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.solver = new CargoConsolidationSolver(pool);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the lane is missing, a cap is not positive, or the
+     *         selection holds more than the configured maximum of cargo
+     */
+    public ConsolidationPlan plan(ConsolidationRequest request) {
+        String origin = required(request.getOrigin(), "origin");
+        String destination = required(request.getDestination(), "destination");
+        BigDecimal maxWeightKg = request.getMaxWeightKg() != null ? request.getMaxWeightKg() : defaultMaxWeightKg;
+        BigDecimal maxVolume = request.getMaxVolume() != null ? request.getMaxVolume() : defaultMaxVolume;
+        long weightCap = grams(maxWeightKg, RoundingMode.DOWN);
+        long volumeCap = hundredths(maxVolume, RoundingMode.DOWN);
+        if (weightCap <= 0 || volumeCap <= 0) {
+            throw new IllegalArgumentException("maxWeightKg and maxVolume must be positive");
+        }
+        if (request.getCargoIds() != null && request.getCargoIds().size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " cargo items can be consolidated at once");
+        }
+        long budgetMs = Math.max(0, Math.min(request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultBudgetMs, maxBudgetMs));
+
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> laneLoads = transactionTemplate.execute(tx -> {
+            if (request.getCargoIds() != null) {
+                List<Long> ids = List.copyOf(new LinkedHashSet<>(request.getCargoIds()));
+                for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                    rows.addAll(cargoRepository.findUnassignedRowsByIds(ids.subList(from, Math.min(ids.size(), from + ID_CHUNK))));
+                }
+            } else {
+                PageRequest limit = PageRequest.of(0, maxItems + 1);
+                rows.addAll(request.getType() != null
+                        ? cargoRepository.findUnassignedRowsByType(request.getType(), limit)
+                        : cargoRepository.findUnassignedRows(limit));
+            }
+            return Boolean.FALSE.equals(request.getFillExisting()) || openStatuses.isEmpty()
+                    ? List.<Object[]>of()
+                    : shipmentRepository.findLaneLoads(origin, destination, openStatuses);
+        });
+        if (rows.size() > maxItems) {
+            throw new IllegalArgumentException("More than " + maxItems + " unassigned cargo items match; narrow the selection");
+        }
+
+        List<CargoConsolidationSolver.Item> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Cargo cargo = cargo(row);
+            ShipmentManifestService.Contribution c = ShipmentManifestService.Contribution.of(cargo);
+            items.add(new CargoConsolidationSolver.Item(cargo.getCargoId(), grams(c.weightKg(), RoundingMode.HALF_UP),
+                    hundredths(c.volume(), RoundingMode.HALF_UP)));
+        }
+        List<CargoConsolidationSolver.OpenBin> openBins = new ArrayList<>(laneLoads.size());
+        for (Object[] row : laneLoads) {
+            openBins.add(new CargoConsolidationSolver.OpenBin((Long) row[0], grams(decimal(row[1]), RoundingMode.HALF_UP),
+                    hundredths(decimal(row[2]), RoundingMode.HALF_UP)));
+        }
+
+        long solveStart = System.nanoTime();
+        CargoConsolidationSolver.Solution solution = solver.solve(items, openBins, weightCap, volumeCap, budgetMs);
+        long solveMs = (System.nanoTime() - solveStart) / 1_000_000;
+
+        ConsolidationPlan plan = new ConsolidationPlan();
+        plan.setOrigin(origin);
+        plan.setDestination(destination);
+        plan.setMaxWeightKg(maxWeightKg);
+        plan.setMaxVolume(maxVolume);
+        plan.setItems(items.size());
+        plan.setNewShipments(solution.newBins());
+        plan.setLowerBound(solution.lowerBound());
+        plan.setOrdering(solution.ordering());
+        plan.setAttempts(solution.attempts());
+        plan.setTimedOut(solution.timedOut());
+
+        int binCount = openBins.size() + solution.newBins();
+        List<List<Long>> cargoByBin = new ArrayList<>(binCount);
+        long[] weight = new long[binCount];
+        long[] volume = new long[binCount];
+        for (int b = 0; b < binCount; b++) {
+            cargoByBin.add(new ArrayList<>());
+            if (b < openBins.size()) {
+                weight[b] = openBins.get(b).weight();
+                volume[b] = openBins.get(b).volume();
+            }
+        }
+        int[] binOf = solution.binOf();
+        for (int i = 0; i < binOf.length; i++) {
+            CargoConsolidationSolver.Item item = items.get(i);
+            if (binOf[i] == CargoConsolidationSolver.UNPLACED) {
+                plan.getOversizedCargoIds().add(item.cargoId());
+                continue;
+            }
+            cargoByBin.get(binOf[i]).add(item.cargoId());
+            weight[binOf[i]] += item.weight();
+            volume[binOf[i]] += item.volume();
+        }
+        for (int b = 0; b < binCount; b++) {
+            if (cargoByBin.get(b).isEmpty()) {
+                continue;  // an open shipment that received nothing
+            }
+            Long shipmentId = b < openBins.size() ? openBins.get(b).shipmentId() : null;
+            if (shipmentId != null) {
+                plan.setExistingShipmentsFilled(plan.getExistingShipmentsFilled() + 1);
+            }
+            plan.getShipments().add(new ConsolidationPlan.Bin(shipmentId, cargoByBin.get(b),
+                    BigDecimal.valueOf(weight[b], 3), BigDecimal.valueOf(volume[b], 2)));
+        }
+        plan.setPlanMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Consolidation plan {} -> {}: {} items into {} new and {} existing shipments (lower bound {}), " +
+                        "{} attempts, solved in {} ms", origin, destination, items.size(), solution.newBins(),
+                plan.getExistingShipmentsFilled(), solution.lowerBound(), solution.attempts(), solveMs);
+        return plan;
+    }
+
+    /**
+     * Applies a plan from {@link #plan} in one transaction.
+     *
+     * @throws IllegalArgumentException if the plan is malformed (no lane or caps, a cargo id twice)
+     * @throws IllegalStateException if it no longer fits the data: cargo assigned or deleted since,
+     *         a shipment no longer open on the lane, or a shipment that would now exceed a cap
+     */
+    public ConsolidationResult commit(ConsolidationPlan plan) {
+        String origin = required(plan.getOrigin(), "origin");
+        String destination = required(plan.getDestination(), "destination");
+        if (plan.getMaxWeightKg() == null || plan.getMaxVolume() == null) {
+            throw new IllegalArgumentException("maxWeightKg and maxVolume are required");
+        }
+        long weightCap = grams(plan.getMaxWeightKg(), RoundingMode.DOWN);
+        long volumeCap = hundredths(plan.getMaxVolume(), RoundingMode.DOWN);
+        List<ConsolidationPlan.Bin> bins = plan.getShipments() != null ? plan.getShipments() : List.of();
+        Set<Long> seen = new HashSet<>();
+        long total = 0;
+        for (ConsolidationPlan.Bin bin : bins) {
+            if (bin.getCargoIds() == null || bin.getCargoIds().isEmpty()) {
+                throw new IllegalArgumentException("Every shipment in the plan needs cargo");
+            }
+            for (Long id : bin.getCargoIds()) {
+                if (!seen.add(id)) {
+                    throw new IllegalArgumentException("Cargo " + id + " appears more than once in the plan");
+                }
+            }
+            total += bin.getCargoIds().size();
+        }
+        if (total > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " cargo items can be consolidated at once");
+        }
+
+        long start = System.nanoTime();
+        // Truncated to the column precision, as in the other bulk operations
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        ConsolidationResult result = transactionTemplate.execute(tx -> {
+            ConsolidationResult r = new ConsolidationResult();
+
+            // Current rows of the planned cargo; anything missing was assigned or deleted since
+            Map<Long, Cargo> cargo = new HashMap<>();
+            List<Long> ids = new ArrayList<>(seen);
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                for (Object[] row : cargoRepository.findUnassignedRowsByIds(ids.subList(from, Math.min(ids.size(), from + ID_CHUNK)))) {
+                    cargo.put((Long) row[0], cargo(row));
+                }
+            }
+            if (cargo.size() < ids.size()) {
+                List<Long> gone = ids.stream().filter(id -> !cargo.containsKey(id)).sorted().limit(10).toList();
+                throw new IllegalStateException((ids.size() - cargo.size()) + " planned cargo items are no longer unassigned " +
+                        "(e.g. " + gone + "); plan again");
+            }
+
+            Map<Long, long[]> laneLoads = new HashMap<>();
+            if (!openStatuses.isEmpty() && bins.stream().anyMatch(b -> b.getShipmentId() != null)) {
+                for (Object[] row : shipmentRepository.findLaneLoads(origin, destination, openStatuses)) {
+                    laneLoads.put((Long) row[0], new long[] {grams(decimal(row[1]), RoundingMode.HALF_UP),
+                            hundredths(decimal(row[2]), RoundingMode.HALF_UP)});
+                }
+            }
+
+            List<DomainEvent> shipmentEvents = new ArrayList<>();
+            for (ConsolidationPlan.Bin bin : bins) {
+                List<ShipmentManifestService.Contribution> contributions = new ArrayList<>(bin.getCargoIds().size());
+                long[] load = bin.getShipmentId() != null ? laneLoads.get(bin.getShipmentId()) : new long[2];
+                if (load == null) {
+                    throw new IllegalStateException("Shipment " + bin.getShipmentId() + " is no longer open on " +
+                            origin + " -> " + destination + "; plan again");
+                }
+                long weight = load[0];
+                long volume = load[1];
+                for (Long id : bin.getCargoIds()) {
+                    ShipmentManifestService.Contribution c = ShipmentManifestService.Contribution.of(cargo.get(id));
+                    contributions.add(c);
+                    weight += grams(c.weightKg(), RoundingMode.HALF_UP);
+                    volume += hundredths(c.volume(), RoundingMode.HALF_UP);
+                }
+                if (weight > weightCap || volume > volumeCap) {
+                    throw new IllegalStateException((bin.getShipmentId() != null ? "Shipment " + bin.getShipmentId() : "A new shipment") +
+                            " would exceed the weight or volume cap; plan again");
+                }
+
+                Shipment shipment;
+                if (bin.getShipmentId() != null) {
+                    shipment = shipmentRepository.getReferenceById(bin.getShipmentId());
+                    shipmentManifestService.assigned(bin.getShipmentId(), contributions);
+                    r.setShipmentsFilled(r.getShipmentsFilled() + 1);
+                } else {
+                    Shipment created = new Shipment();
+                    created.setOrigin(origin);
+                    created.setDestination(destination);
+                    created.setStatus(NEW_SHIPMENT_STATUS);
+                    shipment = shipmentRepository.save(created);
+                    shipmentManifestService.shipmentCreated(shipment.getShipmentId(), contributions);
+                    r.getCreatedShipmentIds().add(shipment.getShipmentId());
+                    shipmentEvents.add(DomainEvent.created(EntityType.SHIPMENT, shipment.getShipmentId(),
+                            EntitySnapshots.of(shipment), "Shipment created: ID=" + shipment.getShipmentId() +
+                                    ", Origin=" + origin + ", Destination=" + destination));
+                }
+
+                Long shipmentId = shipment.getShipmentId();
+                List<Long> binIds = bin.getCargoIds();
+                int moved = 0;
+                for (int from = 0; from < binIds.size(); from += ID_CHUNK) {
+                    moved += cargoRepository.assignShipment(binIds.subList(from, Math.min(binIds.size(), from + ID_CHUNK)), shipment, now);
+                }
+                if (moved != binIds.size()) {
+                    // Assigned between the check above and the update; the whole commit rolls back
+                    throw new IllegalStateException("Cargo was assigned concurrently; plan again");
+                }
+
+                List<DomainEvent> cargoEvents = new ArrayList<>(binIds.size());
+                for (Long id : binIds) {
+                    Map<String, Object> before = EntitySnapshots.of(cargo.get(id));
+                    Map<String, Object> after = new LinkedHashMap<>(before);
+                    after.put("shipmentId", shipmentId);
+                    cargoEvents.add(DomainEvent.updated(EntityType.CARGO, id, before, after,
+                            "Cargo updated: ID=" + id + ", ShipmentId=" + shipmentId));
+                }
+                // Queued in the outbox with the move itself: one message per shipment
+                kafkaProducerService.publishBatch(EntityType.CARGO, cargoEvents, Map.of("shipmentId", shipmentId));
+                r.setCargoAssigned(r.getCargoAssigned() + moved);
+            }
+            kafkaProducerService.publishBatch(EntityType.SHIPMENT, shipmentEvents, Map.of());
+            r.setShipmentsCreated(r.getCreatedShipmentIds().size());
+            return r;
+        });
+
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value.trim();
+    }
+
+    // A detached Cargo holding one row of the consolidation queries, for manifest contributions and event snapshots
+    private static Cargo cargo(Object[] row) {
+        Cargo c = new Cargo();
+        c.setCargoId((Long) row[0]);
+        c.setType((String) row[1]);
+        c.setValue((BigDecimal) row[2]);
+        c.setWeight((BigDecimal) row[3]);
+        c.setVolume((BigDecimal) row[4]);
+        c.setWeightUnit((String) row[5]);
+        c.setDescription((String) row[6]);
+        return c;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal d ? d : new BigDecimal(value.toString());
+    }
+
+    // The solver works in exact integers: grams (kg has scale 3) and hundredths of volume (scale 2)
+    private static long grams(BigDecimal kg, RoundingMode rounding) {
+        return kg.movePointRight(3).setScale(0, rounding).longValueExact();
+    }
+
+    private static long hundredths(BigDecimal volume, RoundingMode rounding) {
+        return volume.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,299 @@
+package com.supplychain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Packs cargo into shipments under a weight cap and a volume cap (two-dimensional bin packing).
+ * Each attempt is first-fit decreasing: items are sorted by size relative to the caps, and each
+ * goes into the first bin with room in both dimensions. Open bins sit in a segment tree of their
+ * spare weight and volume, so finding that bin takes about log(bins) steps rather than a scan.
+ * <p>
+ * Attempts differ in how "size" is measured (the larger share, the sum of shares, weight only,
+ * volume only), then in seeded random perturbations of the first. The first attempt always runs
+ * to completion on the calling thread. The rest run on the pool until the time budget is spent,
+ * or until one reaches the lower bound, and the plan with the fewest new bins wins.
+ * <p>
+ * Weights and volumes are integers in any fixed unit (the service uses grams and hundredths),
+ * so capacity checks are exact. Existing bins come first and are filled before new ones are opened.
+ */
+public final class CargoConsolidationSolver {
+
+    /** One piece of cargo. */
+    public record Item(long cargoId, long weight, long volume) {
+    }
+
+    /** An existing shipment that can take more cargo, with the load it already carries. */
+    public record OpenBin(long shipmentId, long weight, long volume) {
+    }
+
+    /**
+     * The chosen packing. {@code binOf[i]} is the bin of item {@code i}: below
+     * {@code openBins.size()} an existing bin, otherwise new bin {@code binOf[i] - openBins.size()};
+     * {@link #UNPLACED} for items larger than a cap.
+     */
+    public record Solution(int[] binOf, int newBins, int lowerBound, String ordering, int attempts, boolean timedOut) {
+    }
+
+    public static final int UNPLACED = -1;
+    private static final String[] ORDERINGS = {"max-share", "sum-share", "weight", "volume"};
+    private static final int MAX_ATTEMPTS = 64;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;  // items between clock reads
+    private static final int MAX_VISITS = 4096;  // tree nodes per lookup before opening a new bin
+    private static final int INDEX_BITS = 20;    // item index bits when sorting packed keys
+
+    private final ForkJoinPool pool;
+
+    public CargoConsolidationSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Solution solve(List<Item> items, List<OpenBin> openBins, long maxWeight, long maxVolume, long budgetMs) {
+        if (maxWeight <= 0 || maxVolume <= 0) {
+            throw new IllegalArgumentException("Weight and volume caps must be positive");
+        }
+        Problem problem = new Problem(items, openBins, maxWeight, maxVolume);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMs));
+        AtomicInteger nextAttempt = new AtomicInteger(1);
+        AtomicBoolean optimal = new AtomicBoolean();
+
+        List<Future<Packing>> workers = new ArrayList<>();
+        if (budgetMs > 0 && !items.isEmpty()) {
+            for (int w = 0; w < pool.getParallelism(); w++) {
+                workers.add(pool.submit(() -> {
+                    Packing best = null;
+                    int attempt;
+                    while (!optimal.get() && System.nanoTime() < deadline
+                            && (attempt = nextAttempt.getAndIncrement()) < MAX_ATTEMPTS) {
+                        Packing p = problem.pack(attempt, deadline);
+                        if (p != null && (best == null || p.newBins < best.newBins)) {
+                            best = p;
+                        }
+                        if (p != null && p.newBins <= problem.lowerBound) {
+                            optimal.set(true);
+                        }
+                    }
+                    return best;
+                }));
+            }
+        }
+
+        Packing best = problem.pack(0, Long.MAX_VALUE);
+        if (best.newBins <= problem.lowerBound) {
+            optimal.set(true);
+        }
+        boolean timedOut = false;
+        for (Future<Packing> worker : workers) {
+            try {
+                // Workers stop within one check interval of the deadline; allow a little past it
+                long wait = Math.max(0, deadline - System.nanoTime()) + TimeUnit.MILLISECONDS.toNanos(100);
+                Packing p = worker.get(wait, TimeUnit.NANOSECONDS);
+                if (p != null && (p.newBins < best.newBins || (p.newBins == best.newBins && p.attempt < best.attempt))) {
+                    best = p;
+                }
+            } catch (TimeoutException e) {
+                worker.cancel(true);
+                timedOut = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                worker.cancel(true);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Consolidation attempt failed", e.getCause());
+            }
+        }
+        timedOut |= !optimal.get() && nextAttempt.get() < MAX_ATTEMPTS && !workers.isEmpty();
+        return new Solution(best.binOf, best.newBins, problem.lowerBound, label(best.attempt),
+                Math.min(nextAttempt.get(), MAX_ATTEMPTS), timedOut);
+    }
+
+    private static String label(int attempt) {
+        return attempt < ORDERINGS.length ? ORDERINGS[attempt] : "max-share~" + attempt;
+    }
+
+    private record Packing(int attempt, int[] binOf, int newBins) {
+    }
+
+    /** The inputs in primitive arrays, shared read-only by every attempt. */
+    private static final class Problem {
+        private final int n;
+        private final int open;
+        private final long[] weight;
+        private final long[] volume;
+        private final long[] openWeight;
+        private final long[] openVolume;
+        private final long maxWeight;
+        private final long maxVolume;
+        private final int lowerBound;  // new bins no packing can do without
+
+        Problem(List<Item> items, List<OpenBin> openBins, long maxWeight, long maxVolume) {
+            this.n = items.size();
+            this.open = openBins.size();
+            this.maxWeight = maxWeight;
+            this.maxVolume = maxVolume;
+            weight = new long[n];
+            volume = new long[n];
+            long totalWeight = 0;
+            long totalVolume = 0;
+            for (int i = 0; i < n; i++) {
+                weight[i] = Math.max(0, items.get(i).weight());
+                volume[i] = Math.max(0, items.get(i).volume());
+                if (weight[i] <= maxWeight && volume[i] <= maxVolume) {
+                    totalWeight += weight[i];
+                    totalVolume += volume[i];
+                }
+            }
+            openWeight = new long[open];
+            openVolume = new long[open];
+            for (int b = 0; b < open; b++) {
+                openWeight[b] = openBins.get(b).weight();
+                openVolume[b] = openBins.get(b).volume();
+                totalWeight -= Math.max(0, maxWeight - openWeight[b]);
+                totalVolume -= Math.max(0, maxVolume - openVolume[b]);
+            }
+            lowerBound = (int) Math.max(0, Math.max(ceilDiv(totalWeight, maxWeight), ceilDiv(totalVolume, maxVolume)));
+        }
+
+        private static long ceilDiv(long a, long b) {
+            return a <= 0 ? 0 : (a + b - 1) / b;
+        }
+
+        /** One first-fit decreasing pass; null if the deadline passed first. */
+        Packing pack(int attempt, long deadline) {
+            double[] key = new double[n];
+            Random random = attempt >= ORDERINGS.length ? new Random(attempt) : null;
+            for (int i = 0; i < n; i++) {
+                double w = (double) weight[i] / maxWeight;
+                double v = (double) volume[i] / maxVolume;
+                key[i] = switch (attempt) {
+                    case 1 -> w + v;
+                    case 2 -> w;
+                    case 3 -> v;
+                    default -> Math.max(w, v) * (random != null ? 0.85 + 0.3 * random.nextDouble() : 1);
+                };
+            }
+            int[] order = order(key);
+
+            SpareTree tree = new SpareTree(open + n, maxWeight, maxVolume);
+            for (int b = 0; b < open; b++) {
+                tree.set(b, maxWeight - openWeight[b], maxVolume - openVolume[b]);
+            }
+            int[] binOf = new int[n];
+            int opened = open;  // slots below this are in use; the rest are empty bins
+            for (int k = 0; k < n; k++) {
+                if (k % DEADLINE_CHECK_INTERVAL == 0 && k > 0 && System.nanoTime() > deadline) {
+                    return null;
+                }
+                int i = order[k];
+                if (weight[i] > maxWeight || volume[i] > maxVolume) {
+                    binOf[i] = UNPLACED;
+                    continue;
+                }
+                int bin = tree.firstFit(weight[i], volume[i], opened);
+                if (bin < 0) {
+                    bin = opened++;
+                }
+                tree.take(bin, weight[i], volume[i]);
+                binOf[i] = bin;
+            }
+            return new Packing(attempt, binOf, opened - open);
+        }
+
+        /**
+         * Item indexes by descending key, ties by index. Keys are non-negative, so their bit patterns
+         * order like the values; the top bits of each pattern and the index share one primitive long,
+         * which sorts several times faster than boxed indexes with a comparator.
+         */
+        private static int[] order(double[] key) {
+            int n = key.length;
+            int[] order = new int[n];
+            if (n >= 1 << INDEX_BITS) {
+                Integer[] boxed = new Integer[n];
+                for (int i = 0; i < n; i++) {
+                    boxed[i] = i;
+                }
+                Arrays.sort(boxed, (a, b) -> key[a] != key[b] ? Double.compare(key[b], key[a]) : Integer.compare(a, b));
+                for (int i = 0; i < n; i++) {
+                    order[i] = boxed[i];
+                }
+                return order;
+            }
+            long keyMask = -1L >>> INDEX_BITS;
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                // Dropping the low mantissa bits only merges keys within about 1e-9 of each other
+                long bits = Double.doubleToLongBits(key[i]) >>> INDEX_BITS;
+                packed[i] = ((keyMask - bits) << INDEX_BITS) | i;
+            }
+            Arrays.sort(packed);
+            for (int k = 0; k < n; k++) {
+                order[k] = (int) (packed[k] & ((1 << INDEX_BITS) - 1));
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Spare weight and volume per bin slot, with the maximum of each over every subtree. A subtree
+     * whose maxima are too small cannot hold the item and is skipped; the maxima may come from
+     * different bins, so a subtree that passes can still turn out to have no fit.
+     */
+    private static final class SpareTree {
+        private final int size;  // leaves, a power of two
+        private final long[] spareWeight;
+        private final long[] spareVolume;
+        private int visits;
+
+        SpareTree(int slots, long maxWeight, long maxVolume) {
+            int s = 1;
+            while (s < Math.max(1, slots)) {
+                s <<= 1;
+            }
+            size = s;
+            spareWeight = new long[2 * s];
+            spareVolume = new long[2 * s];
+            Arrays.fill(spareWeight, maxWeight);
+            Arrays.fill(spareVolume, maxVolume);
+        }
+
+        void set(int slot, long weight, long volume) {
+            int node = slot + size;
+            spareWeight[node] = weight;
+            spareVolume[node] = volume;
+            for (node >>= 1; node > 0; node >>= 1) {
+                spareWeight[node] = Math.max(spareWeight[2 * node], spareWeight[2 * node + 1]);
+                spareVolume[node] = Math.max(spareVolume[2 * node], spareVolume[2 * node + 1]);
+            }
+        }
+
+        void take(int slot, long weight, long volume) {
+            set(slot, spareWeight[slot + size] - weight, spareVolume[slot + size] - volume);
+        }
+
+        /** Lowest slot below {@code limit} that fits, or -1 (also when the search gets too long). */
+        int firstFit(long weight, long volume, int limit) {
+            visits = 0;
+            return find(1, 0, size, weight, volume, limit);
+        }
+
+        private int find(int node, int lo, int hi, long weight, long volume, int limit) {
+            if (lo >= limit || spareWeight[node] < weight || spareVolume[node] < volume || ++visits > MAX_VISITS) {
+                return -1;
+            }
+            if (hi - lo == 1) {
+                return lo;
+            }
+            int mid = (lo + hi) >>> 1;
+            int left = find(2 * node, lo, mid, weight, volume, limit);
+            return left >= 0 ? left : find(2 * node + 1, mid, hi, weight, volume, limit);
+        }
+    }
+}
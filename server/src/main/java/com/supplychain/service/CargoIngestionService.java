@@ -0,0 +1,330 @@
+package com.supplychain.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplychain.dto.BulkImportResult;
+import com.supplychain.dto.CargoCreateRequest;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
+import com.supplychain.event.Operation;
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Shipment;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk cargo ingestion. The payload is read incrementally and handled in chunks. Each chunk
+ * resolves its shipment IDs with one query, validates rows in parallel, and inserts the valid
+ * rows in one transaction, along with one manifest-totals increment per shipment. Inserts go
+ * out as JDBC batches, which the pooled cargo_seq
+ * generator makes possible. One summary message goes to Kafka for the whole import.
+ */
+@Service
+public class CargoIngestionService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final CargoRepository cargoRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final ShipmentManifestService shipmentManifestService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CargoIngestionService(CargoRepository cargoRepository,
+                                 ShipmentRepository shipmentRepository,
+                                 KafkaProducerService kafkaProducerService,
+                                 ShipmentManifestService shipmentManifestService,
+                                 TransactionTemplate transactionTemplate,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${cargo.bulk.chunk-size:1000}") int chunkSize) {
+        this.cargoRepository = cargoRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.shipmentManifestService = shipmentManifestService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Ingests a JSON array of {@link CargoCreateRequest} objects. */
+    public BulkImportResult ingestJson(InputStream in) {
+        Ingestion ingestion = new Ingestion();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of cargo objects");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Unterminated JSON array");
+                }
+                // Read the element as a tree first: malformed JSON stays fatal, but a well-formed
+                // row with wrong field types becomes that row's error and the import continues
+                JsonNode node = parser.readValueAsTree();
+                CargoCreateRequest request = null;
+                String parseError = null;
+                if (!node.isObject()) {
+                    parseError = "Expected a cargo object but found " + node.getNodeType().name().toLowerCase(Locale.ROOT);
+                } else {
+                    try {
+                        request = objectMapper.treeToValue(node, CargoCreateRequest.class);
+                    } catch (JsonProcessingException e) {
+                        parseError = e.getOriginalMessage();
+                    }
+                }
+                ingestion.add(request, parseError);
+            }
+        } catch (IOException e) {
+            ingestion.result.setFatalError("Could not read JSON payload after row " + ingestion.row + ": " + e.getMessage());
+        }
+        return ingestion.finish();
+    }
+
+    /**
+     * Ingests CSV with a header row naming CargoCreateRequest fields
+     * (type, value, weight, weightUnit, volume, description, shipmentId) in any order.
+     */
+    public BulkImportResult ingestCsv(InputStream in) {
+        Ingestion ingestion = new Ingestion();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("Empty CSV payload");
+            }
+            List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                CargoCreateRequest request = null;
+                String parseError = null;
+                try {
+                    request = toRequest(header, parseCsvLine(line));
+                } catch (IllegalArgumentException e) {
+                    parseError = e.getMessage();
+                }
+                ingestion.add(request, parseError);
+            }
+        } catch (IOException e) {
+            ingestion.result.setFatalError("Could not read CSV payload after row " + ingestion.row + ": " + e.getMessage());
+        }
+        return ingestion.finish();
+    }
+
+    /** State of one import: the pending chunk plus running totals. */
+    private final class Ingestion {
+        private final long startNanos = System.nanoTime();
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        private long row;
+
+        void add(CargoCreateRequest request, String parseError) {
+            row++;
+            chunk.add(new PendingRow(row, request, parseError));
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        BulkImportResult finish() {
+            flushChunk();
+            result.setReceived(row);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            result.setElapsedMs(elapsedNanos / 1_000_000);
+            result.setRowsPerSecond(elapsedNanos > 0 ? result.getInserted() * 1e9 / elapsedNanos : 0);
+            if (result.getInserted() > 0) {
+                kafkaProducerService.publishSummary(EntityType.CARGO, Operation.CREATED,
+                        Map.of("count", result.getInserted(), "failed", result.getFailed()));
+            }
+            return result;
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // One query resolves every shipment referenced by the chunk
+            Set<Long> requestedShipments = chunk.stream()
+                    .filter(r -> r.request != null && r.request.getShipmentId() != null)
+                    .map(r -> r.request.getShipmentId())
+                    .collect(Collectors.toSet());
+            Set<Long> existingShipments = requestedShipments.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(shipmentRepository.findExistingIds(requestedShipments));
+
+            // Entity construction and bean validation are CPU-only, so run them in parallel
+            chunk.parallelStream().forEach(r -> r.prepare(existingShipments));
+
+            List<PendingRow> valid = new ArrayList<>();
+            for (PendingRow r : chunk) {
+                if (r.error != null) {
+                    result.setFailed(result.getFailed() + 1);
+                    if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                        result.getErrors().add(new BulkImportResult.RowError(r.row, r.error));
+                    }
+                } else {
+                    valid.add(r);
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                List<Map<String, Object>> snapshots = transactionTemplate.execute(status -> {
+                    List<Cargo> cargo = new ArrayList<>(valid.size());
+                    for (PendingRow r : valid) {
+                        if (r.request.getShipmentId() != null) {
+                            // Reference only; the shipment was verified above and is never loaded
+                            r.cargo.setShipment(entityManager.getReference(Shipment.class, r.request.getShipmentId()));
+                        }
+                        cargo.add(r.cargo);
+                    }
+                    cargoRepository.saveAll(cargo);
+                    shipmentManifestService.addedAll(cargo);  // one increment per shipment in the chunk
+                    entityManager.flush();  // batched INSERTs
+                    List<Map<String, Object>> s = cargo.stream().map(EntitySnapshots::of).toList();
+                    entityManager.clear();  // keep the persistence context bounded to one chunk
+                    return s;
+                });
+                for (Map<String, Object> snapshot : Objects.requireNonNull(snapshots)) {
+                    Long cargoId = (Long) snapshot.get("cargoId");
+                    kafkaProducerService.publishLocal(DomainEvent.created(EntityType.CARGO, cargoId, snapshot,
+                            "Cargo created: ID=" + cargoId));
+                }
+                result.setInserted(result.getInserted() + valid.size());
+            }
+            chunk.clear();
+        }
+    }
+
+    private final class PendingRow {
+        private final long row;
+        private final CargoCreateRequest request;
+        private String error;
+        private Cargo cargo;
+
+        PendingRow(long row, CargoCreateRequest request, String parseError) {
+            this.row = row;
+            this.request = request;
+            this.error = parseError;
+        }
+
+        void prepare(Set<Long> existingShipments) {
+            if (error != null) {
+                return;
+            }
+            if (request.getShipmentId() != null && !existingShipments.contains(request.getShipmentId())) {
+                error = "Shipment not found with id: " + request.getShipmentId();
+                return;
+            }
+            Cargo c = new Cargo();
+            c.setType(request.getType());
+            c.setWeight(request.getWeight());
+            c.setValue(request.getValue());
+            c.setVolume(request.getVolume());
+            c.setWeightUnit(request.getWeightUnit());
+            c.setDescription(request.getDescription());
+
+            Set<ConstraintViolation<Cargo>> violations = validator.validate(c);
+            if (!violations.isEmpty()) {
+                error = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+                return;
+            }
+            cargo = c;
+        }
+    }
+
+    private static CargoCreateRequest toRequest(List<String> header, List<String> cells) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size() && i < cells.size(); i++) {
+            String cell = cells.get(i).trim();
+            values.put(header.get(i).trim(), cell.isEmpty() ? null : cell);
+        }
+        CargoCreateRequest request = new CargoCreateRequest();
+        request.setType(values.get("type"));
+        request.setDescription(values.get("description"));
+        request.setWeightUnit(values.get("weightUnit"));
+        request.setValue(decimal(values, "value"));
+        request.setWeight(decimal(values, "weight"));
+        request.setVolume(decimal(values, "volume"));
+        String shipmentId = values.get("shipmentId");
+        try {
+            request.setShipmentId(shipmentId != null ? Long.parseLong(shipmentId) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid shipmentId: " + shipmentId);
+        }
+        return request;
+    }
+
+    private static BigDecimal decimal(Map<String, String> values, String column) {
+        String value = values.get(column);
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    private static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
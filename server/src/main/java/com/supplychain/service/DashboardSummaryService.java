@@ -0,0 +1,284 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.DashboardSummary;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.model.WeightUnits;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.RouteRepository;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.VendorRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dashboard counters kept in memory. They are seeded from grouped SQL at startup and then
+ * adjusted from the {@link DomainEvent}s published with every write, so reading the summary
+ * never touches the database. A periodic resync bounds drift from writes made by other
+ * instances or outside the API.
+ * <p>
+ * A write holds the read side of {@code counterLock} from just before its transaction commits
+ * until its change has been applied, and the resync holds the write side while it queries. So
+ * every commit the resync's queries can see has already been applied, and none is counted twice
+ * or lost to the reset. The resync never queues for the write side: a queued writer would block
+ * new commits while a committing flush may be waiting on one of their row locks. It retries
+ * {@code tryLock()} instead and skips the cycle if writes never pause.
+ */
+@Service
+public class DashboardSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSummaryService.class);
+    private static final int RESYNC_LOCK_ATTEMPTS = 100;
+    private static final long RESYNC_LOCK_RETRY_MS = 10;
+
+    private final ShipmentRepository shipmentRepository;
+    private final CargoRepository cargoRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
+    private final DeliveryRepository deliveryRepository;
+
+    // Replaced whole on resync, so readers never see it cleared or half refilled
+    private volatile Map<String, LongAdder> shipmentsByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong activeRoutes = new AtomicLong();
+    private final AtomicLong activeVendors = new AtomicLong();
+    private final AtomicLong cargoItems = new AtomicLong();
+    private final AtomicReference<BigDecimal> cargoValue = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicReference<BigDecimal> cargoWeightKg = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong deliveriesToday = new AtomicLong();
+    private volatile LocalDate deliveriesDay = LocalDate.MIN;
+    // A lock rather than synchronized: its holders run queries and commits, and a virtual thread
+    // blocking on JDBC inside synchronized would pin its carrier thread
+    private final ReentrantReadWriteLock counterLock = new ReentrantReadWriteLock();
+
+    public DashboardSummaryService(ShipmentRepository shipmentRepository,
+                                   CargoRepository cargoRepository,
+                                   RouteRepository routeRepository,
+                                   VendorRepository vendorRepository,
+                                   DeliveryRepository deliveryRepository) {
+        this.shipmentRepository = shipmentRepository;
+        this.cargoRepository = cargoRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
+        this.deliveryRepository = deliveryRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        resync();
+    }
+
+    @Scheduled(initialDelayString = "${dashboard.summary.resync-interval-ms:300000}",
+               fixedDelayString = "${dashboard.summary.resync-interval-ms:300000}")
+    public void resync() {
+        if (!lockForResync()) {
+            log.warn("Dashboard resync skipped: writes kept committing for {} ms", RESYNC_LOCK_ATTEMPTS * RESYNC_LOCK_RETRY_MS);
+            return;
+        }
+        try {
+            resyncCounters();
+        } finally {
+            counterLock.writeLock().unlock();
+        }
+    }
+
+    private void resyncCounters() {
+        Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        for (Object[] row : shipmentRepository.countGroupedByStatus()) {
+            byStatus.computeIfAbsent((String) row[0], s -> new LongAdder()).add((Long) row[1]);
+        }
+        shipmentsByStatus = byStatus;
+
+        activeRoutes.set(routeRepository.countByStatus("Active"));
+        activeVendors.set(vendorRepository.countByIsActiveTrue());
+
+        long items = 0;
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal weightKg = BigDecimal.ZERO;
+        for (Object[] row : cargoRepository.sumGroupedByWeightUnit()) {
+            items += (Long) row[1];
+            value = value.add((BigDecimal) row[2]);
+            weightKg = weightKg.add(WeightUnits.toKilograms((BigDecimal) row[3], (String) row[0]));
+        }
+        cargoItems.set(items);
+        cargoValue.set(value);
+        cargoWeightKg.set(weightKg);
+
+        resyncDeliveriesToday(LocalDate.now());
+        log.debug("Dashboard counters seeded: {} shipments, {} cargo items", totalShipments(), items);
+    }
+
+    public DashboardSummary getSummary() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(deliveriesDay)) {
+            rollOverDeliveriesDay(today);
+        }
+
+        Map<String, Long> byStatus = new TreeMap<>();
+        shipmentsByStatus.forEach((status, count) -> {
+            long n = count.sum();
+            if (n > 0) {
+                byStatus.put(status, n);
+            }
+        });
+
+        return new DashboardSummary(
+                byStatus,
+                totalShipments(),
+                activeRoutes.get(),
+                activeVendors.get(),
+                cargoItems.get(),
+                cargoValue.get(),
+                cargoWeightKg.get(),
+                deliveriesToday.get(),
+                LocalDateTime.now());
+    }
+
+    // Applied after commit, so rolled-back writes never touch the counters
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyLocked(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                counterLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!locked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(event);
+                    }
+                } finally {
+                    counterLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void applyLocked(DomainEvent event) {
+        Lock lock = counterLock.readLock();
+        lock.lock();
+        try {
+            apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(DomainEvent event) {
+        Map<String, Object> before = event.getBefore();
+        Map<String, Object> after = event.getAfter();
+        switch (event.getEntityType()) {
+            case SHIPMENT -> {
+                String oldStatus = (String) before.get("status");
+                String newStatus = (String) after.get("status");
+                if (oldStatus != null) {
+                    counter(oldStatus).decrement();
+                }
+                if (newStatus != null) {
+                    counter(newStatus).increment();
+                }
+            }
+            case ROUTE -> activeRoutes.addAndGet(delta("Active".equals(before.get("status")), "Active".equals(after.get("status"))));
+            case VENDOR -> activeVendors.addAndGet(delta(Boolean.TRUE.equals(before.get("isActive")), Boolean.TRUE.equals(after.get("isActive"))));
+            case CARGO -> {
+                cargoItems.addAndGet(delta(!before.isEmpty(), !after.isEmpty()));
+                BigDecimal valueDelta = amount(after.get("value")).subtract(amount(before.get("value")));
+                BigDecimal weightDelta = kilograms(after).subtract(kilograms(before));
+                cargoValue.accumulateAndGet(valueDelta, BigDecimal::add);
+                cargoWeightKg.accumulateAndGet(weightDelta, BigDecimal::add);
+            }
+            case DELIVERY -> {
+                LocalDate today = deliveriesDay;
+                deliveriesToday.addAndGet(delta(isOn(before.get("actualDeliveryDate"), today), isOn(after.get("actualDeliveryDate"), today)));
+            }
+        }
+    }
+
+    // Until the lock is had, yesterday's count is served and the next read tries again
+    private void rollOverDeliveriesDay(LocalDate today) {
+        if (!lockForResync()) {
+            return;
+        }
+        try {
+            if (!today.equals(deliveriesDay)) {
+                resyncDeliveriesToday(today);
+            }
+        } finally {
+            counterLock.writeLock().unlock();
+        }
+    }
+
+    private boolean lockForResync() {
+        for (int attempt = 0; attempt < RESYNC_LOCK_ATTEMPTS; attempt++) {
+            if (counterLock.writeLock().tryLock()) {
+                return true;
+            }
+            try {
+                Thread.sleep(RESYNC_LOCK_RETRY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void resyncDeliveriesToday(LocalDate today) {
+        deliveriesToday.set(deliveryRepository.countByActualDeliveryDateGreaterThanEqualAndActualDeliveryDateLessThan(
+                today.atStartOfDay(), today.plusDays(1).atStartOfDay()));
+        deliveriesDay = today;
+    }
+
+    private long totalShipments() {
+        return shipmentsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private LongAdder counter(String status) {
+        return shipmentsByStatus.computeIfAbsent(status, s -> new LongAdder());
+    }
+
+    private static long delta(boolean was, boolean is) {
+        return (is ? 1 : 0) - (was ? 1 : 0);
+    }
+
+    private static BigDecimal amount(Object value) {
+        return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal kilograms(Map<String, Object> cargo) {
+        return WeightUnits.toKilograms((BigDecimal) cargo.get("weight"), (String) cargo.get("weightUnit"));
+    }
+
+    private static boolean isOn(Object dateTime, LocalDate day) {
+        return dateTime != null && ((LocalDateTime) dateTime).toLocalDate().equals(day);
+    }
+}
@@ -0,0 +1,115 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.VersionStamp;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.RouteRepository;
+import com.supplychain.repository.ShipmentCargoSummaryRepository;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.VendorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETags for the GET endpoints, computed from version columns without loading entities.
+ * <p>
+ * A single resource's tag combines its own {@code @Version} with those of the associations
+ * embedded in its JSON (a shipment shows its route and vendor, so editing the route changes the
+ * shipment's tag). A collection's tag combines the {@link VersionStamp} of every table its rows
+ * are built from. Tags are read before the body, so a change in between only costs one more
+ * full response, never a stale 304.
+ */
+@Service
+public class EntityTagService {
+
+    private final ShipmentRepository shipmentRepository;
+    private final CargoRepository cargoRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final ShipmentCargoSummaryRepository shipmentCargoSummaryRepository;
+
+    @Autowired
+    public EntityTagService(ShipmentRepository shipmentRepository, CargoRepository cargoRepository,
+                            RouteRepository routeRepository, VendorRepository vendorRepository,
+                            DeliveryRepository deliveryRepository,
+                            ShipmentCargoSummaryRepository shipmentCargoSummaryRepository) {
+        this.shipmentRepository = shipmentRepository;
+        this.cargoRepository = cargoRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.shipmentCargoSummaryRepository = shipmentCargoSummaryRepository;
+    }
+
+    // Single resources; null when the entity does not exist, so the caller answers as before
+
+    public String shipment(Long id) {
+        return single("shipment", id, shipmentRepository.findVersions(id));
+    }
+
+    public String cargo(Long id) {
+        return single("cargo", id, cargoRepository.findVersions(id));
+    }
+
+    public String delivery(Long id) {
+        return single("delivery", id, deliveryRepository.findVersions(id));
+    }
+
+    public String route(Long id) {
+        return single("route", id, routeRepository.findVersion(id).stream().map(v -> new Object[] {v}).toList());
+    }
+
+    public String vendor(Long id) {
+        return single("vendor", id, vendorRepository.findVersion(id).stream().map(v -> new Object[] {v}).toList());
+    }
+
+    // A shipment's cargo totals; null until its first cargo creates the row
+    public String manifest(Long shipmentId) {
+        return single("manifest", shipmentId,
+                shipmentCargoSummaryRepository.findVersion(shipmentId).stream().map(v -> new Object[] {v}).toList());
+    }
+
+    // Collections
+
+    public String shipments() {
+        return collection("shipments", shipmentRepository.versionStamp(), routeRepository.versionStamp(),
+                vendorRepository.versionStamp());
+    }
+
+    // Cargo rows embed only their shipment's own columns, not its route or vendor
+    public String cargoList() {
+        return collection("cargo", cargoRepository.versionStamp(), shipmentRepository.versionStamp());
+    }
+
+    // The delivery list is a projection of delivery and shipment columns only
+    public String deliveries() {
+        return collection("deliveries", deliveryRepository.versionStamp(), shipmentRepository.versionStamp());
+    }
+
+    public String routes() {
+        return collection("routes", routeRepository.versionStamp());
+    }
+
+    public String vendors() {
+        return collection("vendors", vendorRepository.versionStamp());
+    }
+
+    private static String single(String name, Long id, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        // A missing association shows as "n", so assigning or clearing a route changes the tag
+        String versions = Arrays.stream(rows.get(0)).map(v -> Objects.toString(v, "n")).collect(Collectors.joining("."));
+        return "\"" + name + "-" + id + "-" + versions + "\"";
+    }
+
+    private static String collection(String name, VersionStamp... stamps) {
+        return "\"" + name + "-" + Arrays.stream(stamps).map(VersionStamp::token).collect(Collectors.joining(".")) + "\"";
+    }
+}
@@ -0,0 +1,199 @@
+package com.supplychain.service;
+
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventRoutes;
+import com.supplychain.event.Operation;
+import com.supplychain.service.WebSocketDispatcher.Destination;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers WebSocket pushes per destination for {@code events.websocket.coalesce-window-ms} and
+ * sends each destination one frame per window instead of one per event.
+ * <p>
+ * Events for the same entity are merged into a single net change: field changes accumulate with
+ * the latest value winning, an update after a create stays a create, and a create followed by a
+ * delete within the window disappears. Entity and parent topics receive a JSON array of the
+ * merged envelopes; list topics receive one notification line, summarised as a count when
+ * several entities were folded together. Entries whose selector headers
+ * differ go out in separate frames, so server-side subscription filters keep working.
+ * <p>
+ * Flushes run on a thread of their own, not the shared {@code @Scheduled} thread, where the
+ * outbox relay or a resync could hold them back for seconds. Once {@code
+ * events.websocket.coalesce-max-pending} entries are buffered a flush is queued straight away
+ * rather than at the end of the window.
+ */
+@Service
+public class EventCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCoalescer.class);
+
+    private final WebSocketDispatcher dispatcher;
+    private final Counter eventsIn;
+    private final Counter framesOut;
+    private final int maxPending;
+    // One thread, so frames for a destination leave in the order they were flushed
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "ws-coalesce"));
+
+    // destination -> entity key -> pending net change, in first-seen order
+    private Map<String, LinkedHashMap<String, Pending>> buffers = new HashMap<>();
+    private int pending;  // entries across all buffers
+    private boolean flushQueued;
+    private long anonymousKeys;
+
+    public EventCoalescer(WebSocketDispatcher dispatcher,
+                          MeterRegistry meterRegistry,
+                          @Value("${events.websocket.coalesce-window-ms:250}") long windowMs,
+                          @Value("${events.websocket.coalesce-max-pending:10000}") int maxPending) {
+        this.dispatcher = dispatcher;
+        this.maxPending = maxPending;
+        this.eventsIn = Counter.builder("events.websocket.coalesced")
+                .description("Events accepted by the WebSocket coalescing stage")
+                .register(meterRegistry);
+        this.framesOut = Counter.builder("events.websocket.frames")
+                .description("Frames sent after coalescing")
+                .register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::flushSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Buffers one event for each of its destinations; the payload is an envelope or plain text. */
+    public void add(List<Destination> destinations, Map<String, Object> headers) {
+        eventsIn.increment();
+        synchronized (this) {
+            for (Destination destination : destinations) {
+                LinkedHashMap<String, Pending> buffer = buffers.computeIfAbsent(destination.name(), d -> new LinkedHashMap<>());
+                int sizeBefore = buffer.size();
+                Object payload = destination.payload();
+                if (payload instanceof EventEnvelope envelope && envelope.getEntityId() != null) {
+                    String key = envelope.getEntityType() + ":" + envelope.getEntityId();
+                    Pending previous = buffer.get(key);
+                    EventEnvelope merged = previous != null ? merge(previous.envelope, envelope) : envelope;
+                    if (merged == null) {
+                        buffer.remove(key);
+                    } else {
+                        // Headers follow the net change, e.g. operation=CREATED for a create plus updates
+                        buffer.put(key, new Pending(merged, null, previous != null ? EventRoutes.headers(merged) : headers));
+                    }
+                } else if (payload instanceof EventEnvelope envelope) {
+                    buffer.put("batch:" + anonymousKeys++, new Pending(envelope, null, headers));  // batch envelopes are never merged
+                } else {
+                    buffer.put("text:" + anonymousKeys++, new Pending(null, (String) payload, headers));
+                }
+                pending += buffer.size() - sizeBefore;
+            }
+            if (pending >= maxPending && !flushQueued && !flusher.isShutdown()) {
+                flushQueued = true;
+                flusher.execute(this::flushSafely);
+            }
+        }
+    }
+
+    // An exception would cancel the scheduled task, and with it every later flush
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing coalesced WebSocket events failed: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        Map<String, LinkedHashMap<String, Pending>> ready;
+        synchronized (this) {
+            flushQueued = false;
+            if (buffers.isEmpty()) {
+                return;
+            }
+            ready = buffers;
+            buffers = new HashMap<>();
+            pending = 0;
+        }
+
+        ready.forEach((destination, pending) -> {
+            // One frame per distinct header set, so selectors still see accurate headers
+            Map<Map<String, Object>, List<Pending>> frames = new LinkedHashMap<>();
+            for (Pending p : pending.values()) {
+                frames.computeIfAbsent(p.headers, h -> new ArrayList<>()).add(p);
+            }
+            frames.forEach((headers, entries) -> {
+                framesOut.increment();
+                dispatcher.dispatch(destination, List.of(new Destination(destination, framePayload(destination, entries))), headers);
+            });
+        });
+    }
+
+    private static Object framePayload(String destination, List<Pending> entries) {
+        EventEnvelope first = entries.get(0).envelope;
+        if (first != null && !destination.equals(first.getEntityType().getDestination())) {
+            return entries.stream().map(p -> p.envelope).toList();
+        }
+        // List topic: the notification line, or a count once several entities are folded together
+        if (entries.size() == 1) {
+            return first != null ? first.describe() : entries.get(0).text;
+        }
+        if (first == null) {
+            return entries.get(entries.size() - 1).text;
+        }
+        long count = 0;
+        for (Pending p : entries) {
+            Object batchCount = p.envelope != null && p.envelope.getEntityId() == null && p.envelope.getChanges() != null
+                    ? p.envelope.getChanges().get("count") : null;
+            count += batchCount instanceof Number n ? n.longValue() : 1;
+        }
+        String name = first.getEntityType().name().charAt(0) + first.getEntityType().name().substring(1).toLowerCase();
+        return name + " batch " + first.getOperation().name().toLowerCase() + ": Count=" + count;
+    }
+
+    /** Net effect of {@code earlier} followed by {@code later}, or null if they cancel out. */
+    static EventEnvelope merge(EventEnvelope earlier, EventEnvelope later) {
+        if (later.getOperation() == Operation.DELETED) {
+            return earlier.getOperation() == Operation.CREATED ? null : later;
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (earlier.getChanges() != null) {
+            changes.putAll(earlier.getChanges());
+        }
+        if (later.getChanges() != null) {
+            changes.putAll(later.getChanges());
+        }
+        Operation operation = earlier.getOperation() == Operation.CREATED ? Operation.CREATED : later.getOperation();
+        // Routing as it was before the earlier event, compared with where the entity ended up
+        Map<String, Object> previousRouting = null;
+        if (operation == Operation.UPDATED) {
+            Map<String, Object> before = new LinkedHashMap<>();
+            if (earlier.getRouting() != null) {
+                before.putAll(earlier.getRouting());
+            }
+            if (earlier.getPreviousRouting() != null) {
+                before.putAll(earlier.getPreviousRouting());
+            }
+            previousRouting = EventRoutes.changedAttributes(before, later.getRouting());
+        }
+        return new EventEnvelope(later.getVersion(), later.getEntityType(), later.getEntityId(), operation, changes,
+                later.getTimestamp(), later.getSequence(), later.getRouting(), previousRouting);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private record Pending(EventEnvelope envelope, String text, Map<String, Object> headers) {
+    }
+}
@@ -0,0 +1,259 @@
+package com.supplychain.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Delivery;
+import com.supplychain.model.Shipment;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to an output stream as NDJSON or CSV. Rows come from a forward-only
+ * cursor with a bounded fetch size and are detached once written, so heap use stays flat
+ * however many rows are exported.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Matches the repositories' fetch size: the persistence context never holds more than one batch
+    private static final int CLEAR_EVERY = 500;
+    private static final int FLUSH_EVERY = 100;
+
+    private static final Map<String, Function<Shipment, Object>> SHIPMENT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Cargo, Object>> CARGO_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Delivery, Object>> DELIVERY_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        SHIPMENT_COLUMNS.put("shipmentId", Shipment::getShipmentId);
+        SHIPMENT_COLUMNS.put("shipmentCode", Shipment::getShipmentCode);
+        SHIPMENT_COLUMNS.put("origin", Shipment::getOrigin);
+        SHIPMENT_COLUMNS.put("destination", Shipment::getDestination);
+        SHIPMENT_COLUMNS.put("status", Shipment::getStatus);
+        SHIPMENT_COLUMNS.put("estimatedDelivery", Shipment::getEstimatedDelivery);
+        SHIPMENT_COLUMNS.put("routeId", s -> s.getAssignedRoute() != null ? s.getAssignedRoute().getRouteId() : null);
+        SHIPMENT_COLUMNS.put("vendorId", s -> s.getAssignedVendor() != null ? s.getAssignedVendor().getVendorId() : null);
+        SHIPMENT_COLUMNS.put("createdAt", Shipment::getCreatedAt);
+        SHIPMENT_COLUMNS.put("updatedAt", Shipment::getUpdatedAt);
+
+        CARGO_COLUMNS.put("cargoId", Cargo::getCargoId);
+        CARGO_COLUMNS.put("shipmentId", c -> c.getShipment() != null ? c.getShipment().getShipmentId() : null);
+        CARGO_COLUMNS.put("type", Cargo::getType);
+        CARGO_COLUMNS.put("value", Cargo::getValue);
+        CARGO_COLUMNS.put("weight", Cargo::getWeight);
+        CARGO_COLUMNS.put("weightUnit", Cargo::getWeightUnit);
+        CARGO_COLUMNS.put("volume", Cargo::getVolume);
+        CARGO_COLUMNS.put("description", Cargo::getDescription);
+        CARGO_COLUMNS.put("createdAt", Cargo::getCreatedAt);
+
+        DELIVERY_COLUMNS.put("deliveryId", Delivery::getDeliveryId);
+        DELIVERY_COLUMNS.put("shipmentId", d -> d.getShipment() != null ? d.getShipment().getShipmentId() : null);
+        DELIVERY_COLUMNS.put("actualDeliveryDate", Delivery::getActualDeliveryDate);
+        DELIVERY_COLUMNS.put("recipient", Delivery::getRecipient);
+        DELIVERY_COLUMNS.put("status", Delivery::getStatus);
+        DELIVERY_COLUMNS.put("createdAt", Delivery::getCreatedAt);
+    }
+
+    private final ShipmentRepository shipmentRepository;
+    private final CargoRepository cargoRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(ShipmentRepository shipmentRepository,
+                         CargoRepository cargoRepository,
+                         DeliveryRepository deliveryRepository,
+                         ObjectMapper objectMapper) {
+        this.shipmentRepository = shipmentRepository;
+        this.cargoRepository = cargoRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean supports(String entity) {
+        return "shipments".equals(entity) || "cargo".equals(entity) || "deliveries".equals(entity);
+    }
+
+    /**
+     * Writes every row of {@code entity} ("shipments", "cargo" or "deliveries") to {@code out}.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(String entity, Format format, OutputStream out) throws IOException {
+        switch (entity) {
+            case "shipments":
+                try (Stream<Shipment> rows = shipmentRepository.streamAll()) {
+                    return write(rows, SHIPMENT_COLUMNS, format, out);
+                }
+            case "cargo":
+                try (Stream<Cargo> rows = cargoRepository.streamAll()) {
+                    return write(rows, CARGO_COLUMNS, format, out);
+                }
+            case "deliveries":
+                try (Stream<Delivery> rows = deliveryRepository.streamAll()) {
+                    return write(rows, DELIVERY_COLUMNS, format, out);
+                }
+            default:
+                throw new IllegalArgumentException("Unsupported export entity: " + entity);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, Map<String, Function<T, Object>> columns, Format format,
+                           OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        writer.header(columns.keySet());
+
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            Map<String, Object> values = new LinkedHashMap<>();
+            columns.forEach((name, getter) -> values.put(name, getter.apply(row)));
+            writer.row(values);
+            entityManager.detach(row);
+
+            count++;
+            if (count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+            if (count % CLEAR_EVERY == 0) {
+                entityManager.clear();  // also drops the fetched shipments/routes/vendors
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private interface RowWriter {
+        void header(Iterable<String> names) throws IOException;
+
+        void row(Map<String, Object> values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines end with our own newline; Jackson's default root separator would indent each with a space
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(Iterable<String> names) {
+            // NDJSON has no header line
+        }
+
+        @Override
+        public void row(Map<String, Object> values) throws IOException {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> e : values.entrySet()) {
+                generator.writeFieldName(e.getKey());
+                generator.writeObject(e.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(Iterable<String> names) throws IOException {
+            writeLine(names);
+        }
+
+        @Override
+        public void row(Map<String, Object> values) throws IOException {
+            writeLine(values.values());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Iterable<?> cells) throws IOException {
+            boolean first = true;
+            for (Object cell : cells) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(escape(cell));
+                first = false;
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(Object cell) {
+            if (cell == null) {
+                return "";
+            }
+            String s = cell.toString();
+            if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+                return '"' + s.replace("\"", "\"\"") + '"';
+            }
+            return s;
+        }
+    }
+}
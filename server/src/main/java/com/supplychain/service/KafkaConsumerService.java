@@ -1,48 +1,89 @@
 package com.supplychain.service;
 
+import com.supplychain.event.EntityType;
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventEnvelopeCodec;
+import com.supplychain.event.EventRoutes;
+import com.supplychain.service.WebSocketDispatcher.Destination;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bridges the event topics to WebSocket clients. Records arrive in batches on
+ * {@code events.consumer.concurrency} consumer threads. Each record is decoded here, routed to
+ * its destinations by {@link EventRoutes}, and handed to {@link EventCoalescer}, which folds a
+ * window of events into one frame per destination before {@link WebSocketDispatcher} sends it,
+ * so a burst never holds up the next poll or floods clients with one frame per row.
+ */
 @Service
 public class KafkaConsumerService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
 
-    @Autowired
-    public KafkaConsumerService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
-    }
+    private final EventCoalescer coalescer;
+    private final EventEnvelopeCodec codec;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
 
-    @KafkaListener(topics = "shipment-events", groupId = "supply-chain-group")
-    public void consumeShipmentEvents(String message) {
-        System.out.println("Consumed shipment event: " + message);
-        // Send the message to WebSocket clients subscribed to /topic/shipments
-        messagingTemplate.convertAndSend("/topic/shipments", message);
-    }
-
-    @KafkaListener(topics = "delivery-events", groupId = "supply-chain-group")
-    public void consumeDeliveryEvents(String message) {
-        System.out.println("Consumed delivery event: " + message);
-        messagingTemplate.convertAndSend("/topic/deliveries", message);
+    @Autowired
+    public KafkaConsumerService(EventCoalescer coalescer, EventEnvelopeCodec codec, MeterRegistry meterRegistry) {
+        this.coalescer = coalescer;
+        this.codec = codec;
+        this.batchTimer = Timer.builder("events.consumer.batch")
+                .description("Time to decode and route one batch of event records")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("events.consumer.batch.size")
+                .description("Records per consumed batch")
+                .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "route-events", groupId = "supply-chain-group")
-    public void consumeRouteEvents(String message) {
-        System.out.println("Consumed route event: " + message);
-        messagingTemplate.convertAndSend("/topic/routes", message);
+    @KafkaListener(topics = {"shipment-events", "delivery-events", "route-events", "cargo-events", "vendor-events"},
+                   groupId = "supply-chain-group", containerFactory = "eventListenerContainerFactory")
+    public void consumeEvents(List<ConsumerRecord<String, byte[]>> records) {
+        batchSize.record(records.size());
+        batchTimer.record(() -> {
+            for (ConsumerRecord<String, byte[]> record : records) {
+                try {
+                    route(record);
+                } catch (RuntimeException e) {
+                    // Skip undecodable records instead of redelivering the whole batch forever
+                    log.warn("Skipping event at {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+                }
+            }
+        });
     }
 
-    @KafkaListener(topics = "cargo-events", groupId = "supply-chain-group")
-    public void consumeCargoEvents(String message) {
-        System.out.println("Consumed cargo event: " + message);
-        messagingTemplate.convertAndSend("/topic/cargo", message);
-    }
+    // The list topic gets the one-line text the notification panel shows (rendered by the
+    // coalescer); entity and parent topics get envelopes so detail views can patch their state
+    private void route(ConsumerRecord<String, byte[]> record) {
+        String destination = EntityType.fromTopic(record.topic()).getDestination();
+        Header header = record.headers().lastHeader(EventEnvelopeCodec.CONTENT_TYPE_HEADER);
+        String contentType = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        if (EventEnvelopeCodec.TEXT.equals(contentType)) {
+            String message = new String(record.value(), StandardCharsets.UTF_8);
+            coalescer.add(List.of(new Destination(destination, message)), Map.of());
+            return;
+        }
 
-    @KafkaListener(topics = "vendor-events", groupId = "supply-chain-group")
-    public void consumeVendorEvents(String message) {
-        System.out.println("Consumed vendor event: " + message);
-        messagingTemplate.convertAndSend("/topic/vendors", message);
+        EventEnvelope envelope = codec.decode(record.value(), contentType);
+        if (log.isDebugEnabled()) {
+            log.debug("Consumed {} event: {}", record.topic(), envelope.describe());
+        }
+        List<Destination> destinations = EventRoutes.destinations(envelope).stream()
+                .map(name -> new Destination(name, envelope))
+                .toList();
+        coalescer.add(destinations, EventRoutes.headers(envelope));
     }
 }
@@ -1,27 +1,115 @@
 package com.supplychain.service;
 
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntityType;
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventEnvelopeCodec;
+import com.supplychain.event.EventRoutes;
+import com.supplychain.event.Operation;
+import com.supplychain.model.OutboxEvent;
+import com.supplychain.model.Tombstone;
+import com.supplychain.repository.OutboxEventRepository;
+import com.supplychain.repository.TombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Entry point for domain events. Kafka messages are not sent from here; they are appended to the
+ * outbox in the caller's transaction and delivered by {@link OutboxRelay} after commit. Deletes
+ * also leave a {@link Tombstone} for the {@link SyncService} change feed.
+ */
 @Service
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventEnvelopeCodec codec;
 
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaProducerService(OutboxEventRepository outboxEventRepository, TombstoneRepository tombstoneRepository,
+                                ApplicationEventPublisher eventPublisher, EventEnvelopeCodec codec) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.codec = codec;
+    }
+
+    /**
+     * Publishes a domain event to in-process listeners (e.g. dashboard counters) and queues its
+     * envelope, keyed by entity id, for the entity's Kafka topic. Call inside the transaction
+     * that made the change; a delete also records its tombstone there.
+     */
+    public void publish(DomainEvent event) {
+        eventPublisher.publishEvent(event);
+        if (event.getOperation() == Operation.DELETED) {
+            tombstoneRepository.save(new Tombstone(event.getEntityType(), event.getEntityId()));
+        }
+        Map<String, Object> current = event.getOperation() == Operation.DELETED ? event.getBefore() : event.getAfter();
+        Map<String, Object> routing = EventRoutes.routingAttributes(event.getEntityType(), current);
+        // Old values of changed routing attributes, so the topics and selectors the entity left hear about it
+        Map<String, Object> previousRouting = event.getOperation() == Operation.UPDATED
+                ? EventRoutes.changedAttributes(EventRoutes.routingAttributes(event.getEntityType(), event.getBefore()), routing)
+                : null;
+        enqueue(event.getEntityType(), event.getEntityId(), event.getOperation(), changes(event), routing, previousRouting);
+    }
+
+    /**
+     * Publishes a domain event to in-process listeners only. Bulk operations use this per row
+     * and then queue one envelope for the whole batch with {@link #publishSummary}.
+     */
+    public void publishLocal(DomainEvent event) {
+        eventPublisher.publishEvent(event);
     }
 
-    public void sendMessage(String topic, String message) {
-        try {
-            System.out.printf("Producing message -> %s to topic -> %s%n", message, topic);
-            this.kafkaTemplate.send(topic, message);
-            System.out.println("Message sent successfully");
-        } catch (Exception e) {
-            System.err.println("Failed to send Kafka message: " + e.getMessage());
-            // Don't throw the exception - just log it
+    /**
+     * Publishes a batch of events of one entity type to in-process listeners and queues a single
+     * compacted envelope listing the affected ids, plus any fields common to the whole batch.
+     */
+    public void publishBatch(EntityType entityType, List<DomainEvent> events, Map<String, Object> common) {
+        if (events.isEmpty()) {
+            return;
         }
+        events.forEach(eventPublisher::publishEvent);
+        Map<String, Object> changes = new LinkedHashMap<>(common);
+        changes.put("count", events.size());
+        changes.put("ids", events.stream().map(DomainEvent::getEntityId).toList());
+        enqueue(entityType, null, events.get(0).getOperation(), changes, common.isEmpty() ? null : common, null);
+    }
+
+    /** Queues a batch envelope without an id, for bulk operations that report counts only. */
+    public void publishSummary(EntityType entityType, Operation operation, Map<String, Object> changes) {
+        enqueue(entityType, null, operation, changes, null, null);
+    }
+
+    private void enqueue(EntityType entityType, Long entityId, Operation operation, Map<String, Object> changes,
+                         Map<String, Object> routing, Map<String, Object> previousRouting) {
+        EventEnvelope envelope = new EventEnvelope(EventEnvelope.VERSION, entityType, entityId, operation, changes,
+                System.currentTimeMillis(), null, routing, previousRouting);
+        outboxEventRepository.save(new OutboxEvent(entityType.getTopic(),
+                entityId != null ? entityId.toString() : null, codec.toJson(envelope)));
+    }
+
+    // Creates carry the full entity, updates only what changed, deletes nothing beyond the id
+    private static Map<String, Object> changes(DomainEvent event) {
+        return switch (event.getOperation()) {
+            case CREATED -> event.getAfter();
+            case UPDATED -> {
+                Map<String, Object> changed = new LinkedHashMap<>();
+                event.getAfter().forEach((field, value) -> {
+                    if (!Objects.equals(value, event.getBefore().get(field))) {
+                        changed.put(field, value);
+                    }
+                });
+                yield changed;
+            }
+            case DELETED -> null;
+        };
     }
-}
\ No newline at end of file
+}
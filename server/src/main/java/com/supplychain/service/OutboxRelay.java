@@ -0,0 +1,204 @@
+package com.supplychain.service;
+
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventEnvelopeCodec;
+import com.supplychain.model.OutboxEvent;
+import com.supplychain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to Kafka. Each batch is locked, handed to the producer without waiting
+ * between records (the producer groups and compresses them), and then awaited as a whole. Rows
+ * are deleted up to the first failed send, so the rest stay queued in order for the next poll.
+ * Delivery is at least once.
+ * <p>
+ * The outbox table is the bounded queue: at most one batch is in flight, and anything beyond
+ * that waits in the database rather than in memory. When sends keep failing, a circuit breaker
+ * stops polling for a while and then probes with a single record.
+ * <p>
+ * Polls run on a thread of their own, so a slow broker never delays the other scheduled jobs,
+ * and one poll drains for at most {@code outbox.relay.max-drain-ms} before yielding to the next.
+ * A batch keeps its row locks, connection and transaction open while its sends are awaited, which
+ * is what stops two instances relaying interleaved batches; {@code send-timeout-ms} bounds that
+ * wait, so keep it short.
+ * <p>
+ * The outbox id becomes the envelope's sequence number, and the envelope is encoded here in the
+ * configured wire format. Ids come from an unpooled sequence and are drawn inside the writing
+ * transaction. Writes to one entity serialize on its row lock and version check, so its events
+ * get increasing ids and are relayed in order. Across entities, id order is not commit order: a
+ * transaction that commits late is relayed on a later poll, after higher ids already sent.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventEnvelopeCodec codec;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long maxDrainMs;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "outbox-relay"));
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       EventEnvelopeCodec codec,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.poll-interval-ms:500}") long pollIntervalMs,
+                       @Value("${outbox.relay.send-timeout-ms:2000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.max-drain-ms:5000}") long maxDrainMs,
+                       @Value("${outbox.relay.breaker.failure-threshold:3}") int failureThreshold,
+                       @Value("${outbox.relay.breaker.open-ms:30000}") long openMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.codec = codec;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxDrainMs = maxDrainMs;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+
+        this.sentCounter = Counter.builder("outbox.relay.sent").description("Events acknowledged by Kafka").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed").description("Event sends that failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch").description("Time to relay one outbox batch").register(meterRegistry);
+        Gauge.builder("outbox.relay.breaker.open", circuitBreaker, b -> b.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .description("1 while the relay is backing off from an unreachable broker")
+                .register(meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void poll() {
+        if (!circuitBreaker.allowRequest()) {
+            return;
+        }
+        try {
+            // Keep draining while batches come back full, up to the drain budget; stop early if the broker is failing
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDrainMs);
+            int relayed;
+            do {
+                int limit = circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN ? 1 : batchSize;
+                relayed = batchTimer.record(() -> transactionTemplate.execute(tx -> relayBatch(limit)));
+            } while (relayed == batchSize && System.nanoTime() < deadline);
+        } catch (PessimisticLockingFailureException e) {
+            log.debug("Outbox is being drained by another instance");
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            log.warn("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Sends one batch and deletes what the broker acknowledged. Returns the number relayed, or
+     * -1 if part of the batch failed.
+     */
+    int relayBatch(int limit) {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(Limit.of(limit));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            CompletableFuture<SendResult<String, byte[]>> send;
+            try {
+                send = kafkaTemplate.send(toRecord(event));
+            } catch (Exception e) {
+                // Metadata unavailable after max.block.ms; later records would block just as long
+                failedCounter.increment();
+                log.warn("Kafka send failed for outbox event {} to {}: {}", event.getId(), event.getTopic(), e.getMessage());
+                break;
+            }
+            sends.add(send.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    sentCounter.increment();
+                } else {
+                    failedCounter.increment();
+                    log.warn("Kafka send failed for outbox event {} to {}: {}", event.getId(), event.getTopic(), ex.getMessage());
+                }
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Individual outcomes are inspected below
+        }
+
+        List<Long> acknowledged = new ArrayList<>(sends.size());
+        for (int i = 0; i < sends.size() && sends.get(i).isDone() && !sends.get(i).isCompletedExceptionally(); i++) {
+            acknowledged.add(batch.get(i).getId());
+        }
+        if (!acknowledged.isEmpty()) {
+            outboxEventRepository.deleteByIdIn(acknowledged);
+            log.debug("Relayed {} outbox events", acknowledged.size());
+        }
+
+        if (acknowledged.size() < batch.size()) {
+            circuitBreaker.recordFailure();
+            return -1;
+        }
+        circuitBreaker.recordSuccess();
+        return acknowledged.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(sendTimeoutMs + 5000, TimeUnit.MILLISECONDS);
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        byte[] value;
+        String contentType;
+        if (event.getPayload().startsWith("{")) {
+            EventEnvelope envelope = codec.fromJson(event.getPayload());
+            envelope.setSequence(event.getId());
+            value = codec.encode(envelope);
+            contentType = codec.contentType();
+        } else {
+            // Plain-text message queued before the envelope format was introduced
+            value = event.getPayload().getBytes(StandardCharsets.UTF_8);
+            contentType = EventEnvelopeCodec.TEXT;
+        }
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), value);
+        record.headers().add(new RecordHeader(EventEnvelopeCodec.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.UTF_8)));
+        return record;
+    }
+}
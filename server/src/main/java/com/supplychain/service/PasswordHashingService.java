@@ -0,0 +1,88 @@
+package com.supplychain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt off the request threads. Hashing is CPU-bound, so it gets a fixed pool sized to
+ * a share of the cores and a bounded queue; when the queue is full new work is rejected with
+ * {@link RejectedExecutionException} (answered as 429 by the caller) instead of letting a login
+ * storm take every Tomcat thread and core from the rest of the API.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+    // Hash of a random password, checked when there is no real hash so every login costs the same
+    private final String dummyHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${auth.hashing.threads:0}") int threads,
+                                  @Value("${auth.hashing.queue-capacity:100}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, "password-hash-" + threadIndex.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("auth.hashing.duration")
+                .description("Time spent in BCrypt per hash or match")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Hashing requests shed because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queued", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword}. A null hash (unknown user, or
+     * one without a local password) is checked against a dummy hash and never matches, so the
+     * response time does not reveal whether the account exists.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            boolean matched = passwordEncoder.matches(rawPassword, encodedPassword != null ? encodedPassword : dummyHash);
+            return matched && encodedPassword != null;
+        });
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(work), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
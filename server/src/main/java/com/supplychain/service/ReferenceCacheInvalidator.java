@@ -0,0 +1,66 @@
+package com.supplychain.service;
+
+import com.supplychain.config.BroadcastListeners;
+import com.supplychain.config.CacheConfig;
+import com.supplychain.event.EntityType;
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventEnvelopeCodec;
+import com.supplychain.model.Route;
+import com.supplychain.model.Vendor;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Keeps the Route and Vendor second-level cache regions coherent across instances. Every
+ * instance consumes the route and vendor topics as a {@link BroadcastListeners} listener, so
+ * each one sees every change made while it runs, and evicts the changed rows plus the cached list queries. Hibernate already
+ * updates the cache for writes made on this instance; evicting again is harmless.
+ */
+@Service
+public class ReferenceCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceCacheInvalidator.class);
+
+    private final Cache cache;
+    private final EventEnvelopeCodec codec;
+
+    @Autowired
+    public ReferenceCacheInvalidator(EntityManagerFactory entityManagerFactory, EventEnvelopeCodec codec,
+                                     BroadcastListeners broadcastListeners) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.codec = codec;
+        broadcastListeners.register("reference-cache", this::onEvents, "route-events", "vendor-events");
+    }
+
+    public void onEvents(List<ConsumerRecord<String, byte[]>> records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Class<?> entityClass = EntityType.fromTopic(record.topic()) == EntityType.ROUTE ? Route.class : Vendor.class;
+            try {
+                Header header = record.headers().lastHeader(EventEnvelopeCodec.CONTENT_TYPE_HEADER);
+                String contentType = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+                EventEnvelope envelope = EventEnvelopeCodec.TEXT.equals(contentType) ? null : codec.decode(record.value(), contentType);
+                if (envelope != null && envelope.getEntityId() != null) {
+                    cache.evictEntityData(entityClass, envelope.getEntityId());
+                } else {
+                    cache.evictEntityData(entityClass);
+                }
+            } catch (RuntimeException e) {
+                // Can't tell which row changed, so drop them all
+                log.warn("Evicting all {} rows after undecodable event at {}-{}@{}: {}", entityClass.getSimpleName(),
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                cache.evictEntityData(entityClass);
+            }
+        }
+        cache.evictQueryRegion(CacheConfig.REFERENCE_LISTS_REGION);
+    }
+}
@@ -0,0 +1,255 @@
+package com.supplychain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the route network for path queries. Ports are numbered 0..n-1 and the
+ * routes leaving each port sit in one contiguous slice of primitive arrays (compressed sparse
+ * rows), so a search touches no boxed values or per-edge objects. Build a new snapshot to apply
+ * changes; readers keep using the old one until they pick up the new reference.
+ */
+public final class RouteNetwork {
+
+    public enum Metric { COST, DURATION, DISTANCE }
+
+    /** One route as loaded from the database; a weight the route does not have is NaN. */
+    public record Edge(long routeId, String originPort, String destinationPort, String transportationMode,
+                       double cost, double duration, double distance) {
+    }
+
+    /** The edges of a path from origin to destination, in travel order. */
+    public record Path(List<Edge> edges) {
+    }
+
+    private static final RouteNetwork EMPTY = build(List.of());
+
+    private final Map<String, Integer> portIndex;
+    private final Map<String, Integer> modeIndex;  // keyed by lower-cased mode name
+    private final int[] offsets;      // routes leaving port p are offsets[p]..offsets[p+1]-1
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] modes;        // index into modeIndex, -1 when the route has no mode
+    private final double[][] weights; // per Metric ordinal
+    private final Edge[] edges;
+
+    private RouteNetwork(Map<String, Integer> portIndex, Map<String, Integer> modeIndex, int[] offsets, int[] sources,
+                         int[] targets, int[] modes, double[][] weights, Edge[] edges) {
+        this.portIndex = portIndex;
+        this.modeIndex = modeIndex;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.targets = targets;
+        this.modes = modes;
+        this.weights = weights;
+        this.edges = edges;
+    }
+
+    public static RouteNetwork empty() {
+        return EMPTY;
+    }
+
+    public static RouteNetwork build(Collection<Edge> routes) {
+        Map<String, Integer> portIndex = new HashMap<>();
+        Map<String, Integer> modeIndex = new HashMap<>();
+        int m = routes.size();
+        int[] origins = new int[m];
+        int[] dests = new int[m];
+        int[] modeOf = new int[m];
+        Edge[] input = routes.toArray(new Edge[0]);
+        for (int i = 0; i < m; i++) {
+            origins[i] = portIndex.computeIfAbsent(input[i].originPort(), k -> portIndex.size());
+            dests[i] = portIndex.computeIfAbsent(input[i].destinationPort(), k -> portIndex.size());
+            String mode = input[i].transportationMode();
+            modeOf[i] = mode != null ? modeIndex.computeIfAbsent(normalize(mode), k -> modeIndex.size()) : -1;
+        }
+
+        // Counting sort of the edges by origin port
+        int n = portIndex.size();
+        int[] offsets = new int[n + 1];
+        for (int origin : origins) {
+            offsets[origin + 1]++;
+        }
+        for (int p = 0; p < n; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] modes = new int[m];
+        double[][] weights = new double[Metric.values().length][m];
+        Edge[] edges = new Edge[m];
+        for (int i = 0; i < m; i++) {
+            int slot = next[origins[i]]++;
+            Edge e = input[i];
+            sources[slot] = origins[i];
+            targets[slot] = dests[i];
+            modes[slot] = modeOf[i];
+            weights[Metric.COST.ordinal()][slot] = e.cost();
+            weights[Metric.DURATION.ordinal()][slot] = e.duration();
+            weights[Metric.DISTANCE.ordinal()][slot] = e.distance();
+            edges[slot] = e;
+        }
+        return new RouteNetwork(portIndex, modeIndex, offsets, sources, targets, modes, weights, edges);
+    }
+
+    public int portCount() {
+        return portIndex.size();
+    }
+
+    public int routeCount() {
+        return edges.length;
+    }
+
+    public boolean hasPort(String port) {
+        return portIndex.containsKey(port);
+    }
+
+    /**
+     * Lowest-total path by {@code metric} (Dijkstra), using only routes whose mode is in
+     * {@code allowedModes} (case-insensitive; null or empty allows every mode). Routes without a
+     * value for the metric, or with a negative one, are not used. Null when no path exists.
+     */
+    public Path shortestPath(String from, String to, Metric metric, Set<String> allowedModes) {
+        Integer source = portIndex.get(from);
+        Integer target = portIndex.get(to);
+        if (source == null || target == null) {
+            return null;
+        }
+        if (source.equals(target)) {
+            return new Path(List.of());
+        }
+        boolean[] modeAllowed = modeMask(allowedModes);
+        double[] weight = weights[metric.ordinal()];
+
+        int n = portIndex.size();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        int[] via = new int[n];  // edge slot used to reach each port
+        Arrays.fill(via, -1);
+        MinHeap heap = new MinHeap(Math.max(16, n / 4));
+        dist[source] = 0;
+        heap.push(source, 0);
+        while (!heap.isEmpty()) {
+            double d = heap.peekKey();
+            int u = heap.pop();
+            if (d > dist[u]) {
+                continue;  // stale entry; u was reached more cheaply since it was queued
+            }
+            if (u == target) {
+                break;
+            }
+            for (int slot = offsets[u], end = offsets[u + 1]; slot < end; slot++) {
+                double w = weight[slot];
+                if (!(w >= 0) || (modeAllowed != null && (modes[slot] < 0 || !modeAllowed[modes[slot]]))) {
+                    continue;  // NaN (unknown) or negative weight, or excluded mode
+                }
+                int v = targets[slot];
+                double candidate = d + w;
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    via[v] = slot;
+                    heap.push(v, candidate);
+                }
+            }
+        }
+        if (via[target] < 0) {
+            return null;
+        }
+
+        List<Edge> path = new ArrayList<>();
+        for (int port = target; port != source; port = sources[via[port]]) {
+            path.add(edges[via[port]]);
+        }
+        Collections.reverse(path);
+        return new Path(path);
+    }
+
+    // null when every mode is allowed
+    private boolean[] modeMask(Set<String> allowedModes) {
+        if (allowedModes == null || allowedModes.isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[modeIndex.size()];
+        for (String mode : allowedModes) {
+            Integer index = modeIndex.get(normalize(mode));
+            if (index != null) {
+                mask[index] = true;
+            }
+        }
+        return mask;
+    }
+
+    private static String normalize(String mode) {
+        return mode.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Binary min-heap of (port, key) pairs in parallel primitive arrays; duplicates allowed. */
+    private static final class MinHeap {
+        private int[] nodes;
+        private double[] keys;
+        private int size;
+
+        MinHeap(int capacity) {
+            nodes = new int[capacity];
+            keys = new double[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(int node, double key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            double lastKey = keys[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (lastKey <= keys[child]) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.supplychain.service;
+
+import com.supplychain.config.BroadcastListeners;
+import com.supplychain.dto.RoutePlan;
+import com.supplychain.dto.VersionStamp;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntityType;
+import com.supplychain.event.EventEnvelope;
+import com.supplychain.event.EventEnvelopeCodec;
+import com.supplychain.event.Operation;
+import com.supplychain.repository.RouteRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Answers multi-hop route queries from an in-memory {@link RouteNetwork}. Routes whose status is
+ * in {@code routes.planner.excluded-statuses} are left out of the graph.
+ * <p>
+ * The graph is kept current without reloading the table: writes on this instance are applied
+ * from their {@link DomainEvent} after commit, and changes made elsewhere arrive on
+ * {@code route-events}, where only the changed rows are read back. Either way the edge set is
+ * patched and a new snapshot is swapped in; queries never wait for a rebuild. A periodic check
+ * of the table's version stamp reloads everything if an event was missed. Incremental applies
+ * record the stamp they read, so only changes the graph has not seen cause a reload.
+ */
+@Service
+public class RoutePlannerService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutePlannerService.class);
+
+    private final RouteRepository routeRepository;
+    private final EventEnvelopeCodec codec;
+    private final Set<String> excludedStatuses;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, RouteNetwork.Edge> edges = new HashMap<>();  // guarded by lock
+    private VersionStamp loadedStamp;                                     // guarded by lock
+    private volatile RouteNetwork network = RouteNetwork.empty();
+    private volatile boolean loaded;
+
+    public RoutePlannerService(RouteRepository routeRepository, EventEnvelopeCodec codec, BroadcastListeners broadcastListeners,
+                               @Value("${routes.planner.excluded-statuses:Closed,Delayed}") List<String> excludedStatuses) {
+        this.routeRepository = routeRepository;
+        this.codec = codec;
+        this.excludedStatuses = excludedStatuses.stream()
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+        broadcastListeners.register("route-planner", this::onRouteEvents, "route-events");
+    }
+
+    /**
+     * Cheapest, fastest or shortest path from {@code from} to {@code to} over routes whose mode is
+     * in {@code modes} (all modes when empty). Null when either port is unknown or no path exists.
+     */
+    public RoutePlan plan(String from, String to, RouteNetwork.Metric metric, Set<String> modes) {
+        if (!loaded) {
+            reload();
+        }
+        RouteNetwork.Path path = network.shortestPath(from, to, metric, modes);
+        if (path == null) {
+            return null;
+        }
+        List<RoutePlan.Leg> legs = new ArrayList<>(path.edges().size());
+        double cost = 0;
+        double duration = 0;
+        double distance = 0;
+        for (RouteNetwork.Edge e : path.edges()) {
+            legs.add(new RoutePlan.Leg(e.routeId(), e.originPort(), e.destinationPort(), e.transportationMode(),
+                    boxed(e.cost()), boxed(e.duration()), boxed(e.distance())));
+            cost += e.cost();
+            duration += e.duration();
+            distance += e.distance();
+        }
+        return new RoutePlan(from, to, metric.name().toLowerCase(Locale.ROOT), boxed(cost), boxed(duration), boxed(distance), legs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        lock.lock();
+        try {
+            // Stamp first: a change landing during the load shows up as a stamp mismatch next time
+            VersionStamp stamp = routeRepository.versionStamp();
+            edges.clear();
+            for (Object[] row : routeRepository.findNetworkRows()) {
+                apply((Long) row[0], row);
+            }
+            loadedStamp = stamp;
+            rebuild();
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Applied after commit, so rolled-back writes never reach the graph
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (event.getEntityType() != EntityType.ROUTE || !loaded) {
+            return;
+        }
+        Map<String, Object> after = event.getOperation() == Operation.DELETED ? null : event.getAfter();
+        lock.lock();
+        try {
+            apply(event.getEntityId(), after == null ? null : new Object[] {
+                    after.get("routeId"), after.get("originPort"), after.get("destinationPort"),
+                    after.get("transportationMode"), after.get("status"), after.get("cost"),
+                    after.get("duration"), after.get("distance")});
+            // The write is committed, so the stamp now covers it; without this, reconcile() would reload
+            loadedStamp = routeRepository.versionStamp();
+            rebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Every instance sees every route event from the time it starts, like the cache invalidator
+    public void onRouteEvents(List<ConsumerRecord<String, byte[]>> records) {
+        Set<Long> changed = new HashSet<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Set<Long> ids = changedIds(record);
+            if (ids == null) {
+                reload();
+                return;
+            }
+            changed.addAll(ids);
+        }
+        if (changed.isEmpty() || !loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            // Stamp before the rows, as in reload(): a change racing the read shows up as a mismatch
+            VersionStamp stamp = routeRepository.versionStamp();
+            Map<Long, Object[]> rows = new HashMap<>();
+            for (Object[] row : routeRepository.findNetworkRows(changed)) {
+                rows.put((Long) row[0], row);
+            }
+            for (Long id : changed) {
+                apply(id, rows.get(id));  // missing row: the route was deleted
+            }
+            loadedStamp = stamp;
+            rebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Backstop for events lost while Kafka was unavailable; one aggregate query when nothing changed
+    @Scheduled(initialDelayString = "${routes.planner.reconcile-interval-ms:60000}",
+               fixedDelayString = "${routes.planner.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        VersionStamp current = routeRepository.versionStamp();
+        VersionStamp previous;
+        lock.lock();
+        try {
+            previous = loadedStamp;
+        } finally {
+            lock.unlock();
+        }
+        if (!current.equals(previous)) {
+            log.debug("Route table changed outside the event stream ({} -> {}), reloading the network", previous, current);
+            reload();
+        }
+    }
+
+    // Route ids named by an envelope, or null when it can't be told which routes changed
+    private Set<Long> changedIds(ConsumerRecord<String, byte[]> record) {
+        try {
+            Header header = record.headers().lastHeader(EventEnvelopeCodec.CONTENT_TYPE_HEADER);
+            String contentType = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+            EventEnvelope envelope = EventEnvelopeCodec.TEXT.equals(contentType) ? null : codec.decode(record.value(), contentType);
+            if (envelope == null) {
+                return null;
+            }
+            if (envelope.getEntityId() != null) {
+                return Set.of(envelope.getEntityId());
+            }
+            Object ids = envelope.getChanges() != null ? envelope.getChanges().get("ids") : null;
+            if (ids instanceof List<?> list) {
+                return list.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toSet());
+            }
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("Reloading the route network after undecodable event at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    // row: [routeId, originPort, destinationPort, transportationMode, status, cost, duration, distance]; null removes
+    private void apply(Long routeId, Object[] row) {
+        if (routeId == null) {
+            return;
+        }
+        if (row == null || row[1] == null || row[2] == null
+                || (row[4] != null && excludedStatuses.contains(row[4].toString().toLowerCase(Locale.ROOT)))) {
+            edges.remove(routeId);
+            return;
+        }
+        edges.put(routeId, new RouteNetwork.Edge(routeId, (String) row[1], (String) row[2], (String) row[3],
+                weight(row[5]), weight(row[6]), weight(row[7])));
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        network = RouteNetwork.build(edges.values());
+        log.debug("Route network rebuilt: {} ports, {} routes in {} ms", network.portCount(), network.routeCount(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static double weight(Object value) {
+        return value instanceof Number n ? n.doubleValue() : Double.NaN;
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /** Parses the {@code optimize} parameter; null when it names no metric. */
+    public static RouteNetwork.Metric metric(String optimize) {
+        return Arrays.stream(RouteNetwork.Metric.values())
+                .filter(m -> m.name().equalsIgnoreCase(optimize.trim()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,264 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.BulkAssignRequest;
+import com.supplychain.dto.BulkAssignResult;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
+import com.supplychain.model.Shipment;
+import com.supplychain.model.Vendor;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.ShipmentSpecifications;
+import com.supplychain.repository.VendorRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Gives vendors to many unassigned shipments at once. Shipments and active vendors are read in
+ * one transaction with each vendor's open load, the matching is computed by
+ * {@link VendorAssignmentPlanner} on a fork-join pool, and the plan is written with one
+ * set-based UPDATE per vendor before the transaction commits. Listeners get the usual
+ * per-shipment events; the outbox gets one compacted message per vendor.
+ * <p>
+ * Without an explicit {@code serviceType}, a shipment's eligible vendors come from its route's
+ * transportation mode via {@code shipments.assignment.mode-service-types}; shipments with no
+ * route, or a mode not listed, may go to any active vendor.
+ */
+@Service
+public class ShipmentAssignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipmentAssignmentService.class);
+    private static final int UPDATE_CHUNK = 1000;  // ids per UPDATE, well under driver parameter limits
+
+    private final ShipmentRepository shipmentRepository;
+    private final VendorRepository vendorRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int vendorCapacity;
+    private final VendorAssignmentPlanner.Strategy defaultStrategy;
+    private final List<String> closedStatuses;
+    private final Map<String, Set<String>> serviceTypesByMode;
+    private final int maxShipments;
+    private final ForkJoinPool pool;
+    private final VendorAssignmentPlanner planner;
+
+    public ShipmentAssignmentService(ShipmentRepository shipmentRepository,
+                                     VendorRepository vendorRepository,
+                                     KafkaProducerService kafkaProducerService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${shipments.assignment.vendor-capacity:200}") int vendorCapacity,
+                                     @Value("${shipments.assignment.strategy:balance}") String strategy,
+                                     @Value("${shipments.assignment.closed-statuses:Delivered,Cancelled}") List<String> closedStatuses,
+                                     @Value("${shipments.assignment.mode-service-types:}") List<String> modeServiceTypes,
+                                     @Value("${shipments.assignment.max-shipments:20000}") int maxShipments,
+                                     @Value("${shipments.assignment.parallelism:0}") int parallelism) {
+        this.shipmentRepository = shipmentRepository;
+        this.vendorRepository = vendorRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.vendorCapacity = vendorCapacity;
+        this.defaultStrategy = parseStrategy(strategy);
+        if (defaultStrategy == null) {
+            throw new IllegalStateException("shipments.assignment.strategy must be balance or consolidate, not " + strategy);
+        }
+        this.closedStatuses = closedStatuses.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.serviceTypesByMode = parseModeServiceTypes(modeServiceTypes);
+        this.maxShipments = maxShipments;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.planner = new VendorAssignmentPlanner(pool);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request selects nothing explicitly, names an unknown
+     *         strategy or a negative capacity, or matches more than the configured maximum
+     */
+    public BulkAssignResult assign(BulkAssignRequest request) {
+        if (request.getShipmentIds() == null && request.getFilter() == null) {
+            throw new IllegalArgumentException("Either shipmentIds or filter is required");
+        }
+        if (request.getShipmentIds() != null && request.getShipmentIds().size() > maxShipments) {
+            throw new IllegalArgumentException("At most " + maxShipments + " shipments can be assigned at once");
+        }
+        VendorAssignmentPlanner.Strategy strategy = request.getStrategy() != null ? parseStrategy(request.getStrategy()) : defaultStrategy;
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy must be balance or consolidate");
+        }
+        int capacity = request.getMaxPerVendor() != null ? request.getMaxPerVendor() : vendorCapacity;
+        if (capacity < 0) {
+            throw new IllegalArgumentException("maxPerVendor cannot be negative");
+        }
+
+        long start = System.nanoTime();
+        // Truncated to the column precision, as in the bulk status transition
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        BulkAssignResult result = transactionTemplate.execute(tx -> {
+            BulkAssignResult r = new BulkAssignResult();
+            r.setStrategy(strategy.name().toLowerCase(Locale.ROOT));
+            r.setDryRun(request.isDryRun());
+
+            List<Long> requestedIds = request.getShipmentIds();
+            List<Shipment> shipments = shipmentRepository.findBy(
+                    ShipmentSpecifications.unassigned(requestedIds, requestedIds == null ? request.getFilter() : null),
+                    q -> q.sortBy(Sort.by(ShipmentSpecifications.ID)).limit(maxShipments + 1).all());
+            if (shipments.size() > maxShipments) {
+                throw new IllegalArgumentException("Filter matches more than " + maxShipments + " shipments; narrow it down");
+            }
+            if (shipments.isEmpty()) {
+                return r;
+            }
+
+            List<Vendor> vendors = activeVendors(request.getServiceType());
+            Map<Long, Integer> openLoad = new HashMap<>();
+            for (Object[] row : shipmentRepository.countOpenByVendor(closedStatuses)) {
+                openLoad.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+            List<VendorAssignmentPlanner.Candidate> candidates = vendors.stream()
+                    .map(v -> new VendorAssignmentPlanner.Candidate(v.getVendorId(), v.getServiceType(),
+                            openLoad.getOrDefault(v.getVendorId(), 0), capacity))
+                    .toList();
+            List<VendorAssignmentPlanner.Demand> demands = shipments.stream()
+                    .map(s -> new VendorAssignmentPlanner.Demand(s.getShipmentId(),
+                            request.getServiceType() != null ? null : serviceTypesFor(s)))
+                    .toList();
+
+            long planStart = System.nanoTime();
+            int[] plan = planner.plan(demands, candidates, strategy);
+            r.setPlanMs((System.nanoTime() - planStart) / 1_000_000);
+
+            Map<Long, Vendor> vendorById = new HashMap<>();
+            Map<Long, Long> plannedVendor = new HashMap<>();  // shipmentId -> vendorId
+            Map<Long, Map<String, Object>> before = new HashMap<>();
+            for (int i = 0; i < plan.length; i++) {
+                Shipment shipment = shipments.get(i);
+                if (plan[i] == VendorAssignmentPlanner.UNMATCHED) {
+                    r.getUnassignedIds().add(shipment.getShipmentId());
+                    continue;
+                }
+                Vendor vendor = vendors.get(plan[i]);
+                vendorById.put(vendor.getVendorId(), vendor);
+                plannedVendor.put(shipment.getShipmentId(), vendor.getVendorId());
+                r.getAssignments().computeIfAbsent(vendor.getVendorId(), v -> new ArrayList<>()).add(shipment.getShipmentId());
+                before.put(shipment.getShipmentId(), EntitySnapshots.of(shipment));  // before the updates clear the context
+            }
+            r.setMatched(plannedVendor.size());
+            if (request.isDryRun() || plannedVendor.isEmpty()) {
+                return r;
+            }
+
+            long updated = 0;
+            for (Map.Entry<Long, List<Long>> entry : r.getAssignments().entrySet()) {
+                List<Long> ids = entry.getValue();
+                for (int from = 0; from < ids.size(); from += UPDATE_CHUNK) {
+                    updated += shipmentRepository.assignVendor(ids.subList(from, Math.min(ids.size(), from + UPDATE_CHUNK)),
+                            vendorById.get(entry.getKey()), now);
+                }
+            }
+            r.setAssigned(updated);
+
+            // Only when the guard skipped rows: find out which shipments actually got the planned vendor
+            Set<Long> applied = null;
+            if (updated < r.getMatched()) {
+                applied = new HashSet<>();
+                List<Long> plannedIds = new ArrayList<>(plannedVendor.keySet());
+                for (int from = 0; from < plannedIds.size(); from += UPDATE_CHUNK) {
+                    for (Object[] row : shipmentRepository.findVendorIds(plannedIds.subList(from, Math.min(plannedIds.size(), from + UPDATE_CHUNK)))) {
+                        if (row[1].equals(plannedVendor.get((Long) row[0]))) {
+                            applied.add((Long) row[0]);
+                        }
+                    }
+                }
+                log.info("{} of {} planned vendor assignments were skipped; the shipments were assigned concurrently",
+                        r.getMatched() - updated, r.getMatched());
+            }
+
+            // Queued in the outbox with the assignment itself
+            for (Map.Entry<Long, List<Long>> entry : r.getAssignments().entrySet()) {
+                Long vendorId = entry.getKey();
+                List<DomainEvent> events = new ArrayList<>();
+                for (Long id : entry.getValue()) {
+                    if (applied != null && !applied.contains(id)) {
+                        continue;
+                    }
+                    Map<String, Object> after = new LinkedHashMap<>(before.get(id));
+                    after.put("vendorId", vendorId);
+                    events.add(DomainEvent.updated(EntityType.SHIPMENT, id, before.get(id), after,
+                            "Shipment updated: ID=" + id + ", VendorId=" + vendorId));
+                }
+                kafkaProducerService.publishBatch(EntityType.SHIPMENT, events, Map.of("vendorId", vendorId));
+            }
+            return r;
+        });
+
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private List<Vendor> activeVendors(String serviceType) {
+        return vendorRepository.findAll().stream()
+                .filter(v -> Boolean.TRUE.equals(v.getIsActive()))
+                .filter(v -> serviceType == null || serviceType.trim().equalsIgnoreCase(v.getServiceType()))
+                .sorted(Comparator.comparing(Vendor::getVendorId))
+                .toList();
+    }
+
+    private Set<String> serviceTypesFor(Shipment shipment) {
+        if (shipment.getAssignedRoute() == null || shipment.getAssignedRoute().getTransportationMode() == null) {
+            return null;
+        }
+        return serviceTypesByMode.get(shipment.getAssignedRoute().getTransportationMode().trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static VendorAssignmentPlanner.Strategy parseStrategy(String strategy) {
+        for (VendorAssignmentPlanner.Strategy s : VendorAssignmentPlanner.Strategy.values()) {
+            if (s.name().equalsIgnoreCase(strategy.trim())) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    // Entries of "Mode:ServiceType"; repeat a mode to allow several service types for it
+    private static Map<String, Set<String>> parseModeServiceTypes(List<String> entries) {
+        Map<String, Set<String>> byMode = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0 || colon == entry.length() - 1) {
+                throw new IllegalStateException("shipments.assignment.mode-service-types entries must be Mode:ServiceType, not " + entry);
+            }
+            byMode.computeIfAbsent(entry.substring(0, colon).trim().toLowerCase(Locale.ROOT), k -> new LinkedHashSet<>())
+                    .add(entry.substring(colon + 1).trim());
+        }
+        return byMode.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> Set.copyOf(e.getValue())));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,154 @@
+package com.supplychain.service;
+
+import com.supplychain.model.Cargo;
+import com.supplychain.model.ShipmentCargoSummary;
+import com.supplychain.model.WeightUnits;
+import com.supplychain.repository.ShipmentCargoSummaryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@link ShipmentCargoSummary} in step with cargo writes. Every method must run inside the
+ * transaction that writes the cargo, so the totals commit or roll back with it; each change is
+ * one relative UPDATE of the row created with the shipment.
+ */
+@Service
+public class ShipmentManifestService {
+
+    private final ShipmentCargoSummaryRepository summaryRepository;
+
+    public ShipmentManifestService(ShipmentCargoSummaryRepository summaryRepository) {
+        this.summaryRepository = summaryRepository;
+    }
+
+    /** What one cargo row adds to its shipment's totals. Take it before mutating a managed cargo. */
+    public record Contribution(Long shipmentId, BigDecimal value, BigDecimal volume, BigDecimal weightKg) {
+
+        public static Contribution of(Cargo cargo) {
+            // The id of a lazy shipment reference is read without loading the shipment
+            Long shipmentId = cargo.getShipment() != null ? cargo.getShipment().getShipmentId() : null;
+            return new Contribution(shipmentId, orZero(cargo.getValue()), orZero(cargo.getVolume()),
+                    WeightUnits.toKilograms(cargo.getWeight(), cargo.getWeightUnit()));
+        }
+    }
+
+    /**
+     * Creates a new shipment's zero row, so later cargo writes only ever update it. Concurrent
+     * first writes to one row would otherwise race on the insert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void shipmentCreated(Long shipmentId) {
+        summaryRepository.insertEmpty(shipmentId, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void added(Cargo cargo) {
+        Contribution c = Contribution.of(cargo);
+        apply(c.shipmentId(), 1, c.value(), c.volume(), c.weightKg());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(Contribution before) {
+        apply(before.shipmentId(), -1, before.value().negate(), before.volume().negate(), before.weightKg().negate());
+    }
+
+    /** An update: one net change when the cargo stays on its shipment, otherwise a remove and an add. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(Contribution before, Cargo after) {
+        Contribution now = Contribution.of(after);
+        if (before.shipmentId() != null && before.shipmentId().equals(now.shipmentId())) {
+            apply(now.shipmentId(), 0, now.value().subtract(before.value()), now.volume().subtract(before.volume()),
+                    now.weightKg().subtract(before.weightKg()));
+            return;
+        }
+        removed(before);
+        added(after);
+    }
+
+    /** Bulk inserts: one increment per shipment rather than per row. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addedAll(Collection<Cargo> cargo) {
+        Map<Long, Contribution> totals = new LinkedHashMap<>();
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Cargo item : cargo) {
+            Contribution c = Contribution.of(item);
+            if (c.shipmentId() == null) {
+                continue;
+            }
+            counts.merge(c.shipmentId(), 1L, Long::sum);
+            totals.merge(c.shipmentId(), c, (a, b) -> new Contribution(a.shipmentId(), a.value().add(b.value()),
+                    a.volume().add(b.volume()), a.weightKg().add(b.weightKg())));
+        }
+        totals.forEach((shipmentId, c) -> apply(shipmentId, counts.get(shipmentId), c.value(), c.volume(), c.weightKg()));
+    }
+
+    /** A shipment created together with its cargo: the row starts at the cargo's totals instead of zero. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void shipmentCreated(Long shipmentId, Collection<Contribution> cargo) {
+        Contribution total = sum(shipmentId, cargo);
+        ShipmentCargoSummary row = new ShipmentCargoSummary(shipmentId);
+        row.setItemCount(cargo.size());
+        row.setTotalValue(total.value());
+        row.setTotalVolume(total.volume());
+        row.setTotalWeightKg(total.weightKg());
+        row.setUpdatedAt(LocalDateTime.now());
+        summaryRepository.save(row);  // assigned id, so these inserts batch
+    }
+
+    /** Unassigned cargo moved onto a shipment in bulk: one increment for all of it. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assigned(Long shipmentId, Collection<Contribution> cargo) {
+        Contribution total = sum(shipmentId, cargo);
+        apply(shipmentId, cargo.size(), total.value(), total.volume(), total.weightKg());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void shipmentDeleted(Long shipmentId) {
+        summaryRepository.deleteByShipmentId(shipmentId);
+    }
+
+    /** The stored totals, or zeros for a shipment that has never had cargo. */
+    @Transactional(readOnly = true)
+    public ShipmentCargoSummary summary(Long shipmentId) {
+        return summaryRepository.findById(shipmentId).orElseGet(() -> {
+            ShipmentCargoSummary empty = new ShipmentCargoSummary(shipmentId);
+            empty.setVersion(0L);
+            return empty;
+        });
+    }
+
+    private void apply(Long shipmentId, long count, BigDecimal value, BigDecimal volume, BigDecimal weightKg) {
+        if (shipmentId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // The row is missing only for a shipment that predates the table and skipped the backfill
+        if (summaryRepository.addTotals(shipmentId, count, value, volume, weightKg, now) == 0) {
+            summaryRepository.insertEmpty(shipmentId, now);
+            summaryRepository.addTotals(shipmentId, count, value, volume, weightKg, now);
+        }
+    }
+
+    private static Contribution sum(Long shipmentId, Collection<Contribution> cargo) {
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal volume = BigDecimal.ZERO;
+        BigDecimal weightKg = BigDecimal.ZERO;
+        for (Contribution c : cargo) {
+            value = value.add(c.value());
+            volume = volume.add(c.volume());
+            weightKg = weightKg.add(c.weightKg());
+        }
+        return new Contribution(shipmentId, value, volume, weightKg);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,119 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.BulkStatusRequest;
+import com.supplychain.dto.BulkStatusResult;
+import com.supplychain.event.DomainEvent;
+import com.supplychain.event.EntitySnapshots;
+import com.supplychain.event.EntityType;
+import com.supplychain.model.Delivery;
+import com.supplychain.model.Shipment;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.ShipmentSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves many shipments to a new status at once. The affected shipments are read in one query
+ * for the event snapshots, updated with one set-based UPDATE, and (for "Delivered") given their
+ * delivery records with one INSERT ... SELECT, all in a single transaction. Listeners then get
+ * the usual per-entity events while the outbox gets one compacted message per entity type.
+ */
+@Service
+public class ShipmentTransitionService {
+
+    public static final int MAX_SHIPMENTS = 5000;
+    private static final String DELIVERED = "Delivered";
+
+    private final ShipmentRepository shipmentRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShipmentTransitionService(ShipmentRepository shipmentRepository,
+                                     DeliveryRepository deliveryRepository,
+                                     KafkaProducerService kafkaProducerService,
+                                     TransactionTemplate transactionTemplate) {
+        this.shipmentRepository = shipmentRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request has no target status, selects nothing
+     *         explicitly, or matches more than {@link #MAX_SHIPMENTS} shipments
+     */
+    public BulkStatusResult transition(BulkStatusRequest request) {
+        String status = request.getStatus();
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        if (request.getShipmentIds() == null && request.getFilter() == null) {
+            throw new IllegalArgumentException("Either shipmentIds or filter is required");
+        }
+        if (request.getShipmentIds() != null && request.getShipmentIds().size() > MAX_SHIPMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_SHIPMENTS + " shipments can be transitioned at once");
+        }
+
+        long start = System.nanoTime();
+        // Truncated to the column precision so the inserted deliveries can be found by it again
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        BulkStatusResult result = transactionTemplate.execute(tx -> {
+            BulkStatusResult r = new BulkStatusResult();
+            List<DomainEvent> shipmentEvents = new ArrayList<>();
+            List<DomainEvent> deliveryEvents = new ArrayList<>();
+            r.setStatus(status);
+
+            List<Long> requestedIds = request.getShipmentIds();
+            List<Shipment> candidates = shipmentRepository.findBy(
+                    ShipmentSpecifications.transition(requestedIds, requestedIds == null ? request.getFilter() : null, status),
+                    q -> q.sortBy(Sort.by(ShipmentSpecifications.ID)).limit(MAX_SHIPMENTS + 1).all());
+            if (candidates.size() > MAX_SHIPMENTS) {
+                throw new IllegalArgumentException("Filter matches more than " + MAX_SHIPMENTS + " shipments; narrow it down");
+            }
+            if (candidates.isEmpty()) {
+                return r;
+            }
+
+            List<Long> ids = candidates.stream().map(Shipment::getShipmentId).toList();
+            List<Map<String, Object>> before = candidates.stream().map(EntitySnapshots::of).toList();
+            r.setUpdated(shipmentRepository.updateStatus(ids, status, now));
+            r.setUpdatedIds(ids);
+
+            for (Map<String, Object> snapshot : before) {
+                Map<String, Object> after = new LinkedHashMap<>(snapshot);
+                after.put("status", status);
+                Long id = (Long) snapshot.get("shipmentId");
+                shipmentEvents.add(DomainEvent.updated(EntityType.SHIPMENT, id, snapshot, after,
+                        "Shipment updated: ID=" + id + ", Status=" + status));
+            }
+
+            if (DELIVERED.equals(status) && deliveryRepository.insertMissingForShipments(ids, now) > 0) {
+                for (Delivery delivery : deliveryRepository.findCreatedForShipments(ids, now)) {
+                    deliveryEvents.add(DomainEvent.created(EntityType.DELIVERY, delivery.getDeliveryId(),
+                            EntitySnapshots.of(delivery), "Delivery created: ID=" + delivery.getDeliveryId() +
+                                    ", Recipient=" + delivery.getRecipient()));
+                }
+                r.setDeliveriesCreated(deliveryEvents.size());
+            }
+
+            // Queued in the outbox with the transition itself
+            kafkaProducerService.publishBatch(EntityType.SHIPMENT, shipmentEvents, Map.of("status", status));
+            kafkaProducerService.publishBatch(EntityType.DELIVERY, deliveryEvents, Map.of());
+            return r;
+        });
+
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
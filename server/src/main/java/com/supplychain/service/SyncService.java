@@ -0,0 +1,143 @@
+package com.supplychain.service;
+
+import com.supplychain.dto.CargoView;
+import com.supplychain.dto.ShipmentView;
+import com.supplychain.dto.SyncCursor;
+import com.supplychain.dto.SyncResponse;
+import com.supplychain.event.EntityType;
+import com.supplychain.model.Tombstone;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.RouteRepository;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.TombstoneRepository;
+import com.supplychain.repository.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change feed behind {@code GET /api/sync}. Rows are selected by their updated_at column and
+ * deletions come from the tombstone table, so a client holding a cursor downloads only what
+ * changed since its last sync.
+ * <p>
+ * Timestamps are taken while a transaction runs, not when it commits, so a row can become visible
+ * with an updated_at older than a cursor already handed out. On PostgreSQL the next cursor is
+ * therefore held behind the start of the oldest transaction still open (from pg_stat_activity):
+ * rows it writes later are stamped after it started, so a long bulk write is picked up on the
+ * next sync however long it takes to commit. Transactions open longer than
+ * {@code sync.max-transaction-lag-ms} (an idle psql session, a leaked connection) are left out,
+ * with a warning, so one of them cannot drag every cursor back. {@code sync.overlap-ms} is
+ * subtracted on top, for clock differences between instances. On other databases only the overlap applies, and a
+ * transaction that commits more than that after stamping its rows is missed. Rows may be sent
+ * more than once; clients apply them as upserts. A cursor older than the tombstone retention may
+ * have lost deletions and gets a full snapshot instead.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private final ShipmentRepository shipmentRepository;
+    private final CargoRepository cargoRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final Duration overlap;
+    private final Duration retention;
+    private final boolean openTransactionHorizon;
+    private final double maxTransactionLagSeconds;
+    private volatile boolean laggingTransactionReported;
+
+    public SyncService(ShipmentRepository shipmentRepository, CargoRepository cargoRepository,
+                       RouteRepository routeRepository, VendorRepository vendorRepository,
+                       DeliveryRepository deliveryRepository, TombstoneRepository tombstoneRepository,
+                       @Value("${sync.overlap-ms:2000}") long overlapMs,
+                       @Value("${sync.tombstone-retention-hours:168}") long retentionHours,
+                       @Value("${sync.max-transaction-lag-ms:600000}") long maxTransactionLagMs,
+                       @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.shipmentRepository = shipmentRepository;
+        this.cargoRepository = cargoRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.retention = Duration.ofHours(retentionHours);
+        this.openTransactionHorizon = datasourceUrl.startsWith("jdbc:postgresql:");
+        this.maxTransactionLagSeconds = maxTransactionLagMs / 1000.0;
+    }
+
+    /** Changes since {@code cursor}, or a full snapshot when it is null or too old. */
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(SyncCursor cursor) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = cursor != null && cursor.getSince().isAfter(startedAt.minus(retention)) ? cursor.getSince() : null;
+
+        SyncResponse response = new SyncResponse();
+        response.setFull(since == null);
+        // Before reading any rows: a transaction starting after this point stamps its rows later
+        response.setNextCursor(new SyncCursor(startedAt.minus(overlap).minus(openTransactionAge())).encode());
+        if (since == null) {
+            response.setShipments(shipmentRepository.findAllWithReferences().stream().map(ShipmentView::of).toList());
+            response.setCargo(cargoRepository.findAllWithShipment().stream().map(CargoView::of).toList());
+            response.setRoutes(routeRepository.findAll());
+            response.setVendors(vendorRepository.findAll());
+            response.setDeliveries(deliveryRepository.findViewsChangedSince(null));
+            response.setDeleted(Map.of());
+            return response;
+        }
+
+        response.setShipments(shipmentRepository.findByUpdatedAtGreaterThanEqual(since).stream().map(ShipmentView::of).toList());
+        response.setCargo(cargoRepository.findByUpdatedAtGreaterThanEqual(since).stream().map(CargoView::of).toList());
+        response.setRoutes(routeRepository.findByUpdatedAtGreaterThanEqual(since));
+        response.setVendors(vendorRepository.findByUpdatedAtGreaterThanEqual(since));
+        response.setDeliveries(deliveryRepository.findViewsChangedSince(since));
+        Map<String, List<Long>> deleted = new LinkedHashMap<>();
+        for (Tombstone tombstone : tombstoneRepository.findByDeletedAtGreaterThanEqual(since)) {
+            deleted.computeIfAbsent(collectionName(tombstone.getEntityType()), k -> new ArrayList<>()).add(tombstone.getEntityId());
+        }
+        response.setDeleted(deleted);
+        return response;
+    }
+
+    private Duration openTransactionAge() {
+        if (!openTransactionHorizon) {
+            return Duration.ZERO;
+        }
+        Object[] ages = tombstoneRepository.openTransactionAges(maxTransactionLagSeconds).get(0);
+        long lagging = ((Number) ages[1]).longValue();
+        // Reported once per episode rather than on every sync
+        if (lagging > 0 && !laggingTransactionReported) {
+            log.warn("{} database session(s) have had a transaction open for over {} s; sync cursors no longer wait for them",
+                    lagging, maxTransactionLagSeconds);
+        }
+        laggingTransactionReported = lagging > 0;
+        return Duration.ofMillis((long) Math.ceil(((Number) ages[0]).doubleValue() * 1000));
+    }
+
+    @Scheduled(fixedDelayString = "${sync.tombstone-prune-interval-ms:3600000}")
+    @Transactional
+    public void pruneTombstones() {
+        int pruned = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (pruned > 0) {
+            log.info("Pruned {} tombstones older than {}", pruned, retention);
+        }
+    }
+
+    // Same names as the list destinations and the response fields: shipments, cargo, routes, ...
+    private static String collectionName(EntityType type) {
+        return type.getDestination().substring("/topic/".length());
+    }
+}
@@ -0,0 +1,165 @@
+package com.supplychain.service;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.supplychain.dto.TokenResponse;
+import com.supplychain.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HMAC-signed tokens used when {@code auth.tokens.enabled=true}. Access
+ * tokens carry everything a request needs (email, id, name, role), so any instance sharing
+ * {@code auth.tokens.secret} verifies them from the signature alone. Refresh tokens live longer
+ * and are only accepted by {@link #refresh}, which re-reads the user so a deactivated account
+ * stops getting new access tokens.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    public static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+    private static final String OAUTH2_REQUEST = "oauth2_request";
+
+    private final UserCache userCache;
+    private final JwtEncoder encoder;
+    private final JwtDecoder accessTokenDecoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final JwtDecoder oauth2RequestDecoder;
+    private final String issuer;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public TokenService(UserCache userCache,
+                        @Value("${auth.tokens.enabled:false}") boolean enabled,
+                        @Value("${auth.tokens.secret:}") String secret,
+                        @Value("${auth.tokens.issuer:supply-chain-system}") String issuer,
+                        @Value("${auth.tokens.access-ttl-seconds:900}") long accessTtlSeconds,
+                        @Value("${auth.tokens.refresh-ttl-seconds:1209600}") long refreshTtlSeconds) {
+        this.userCache = userCache;
+        this.issuer = issuer;
+        this.accessTtl = Duration.ofSeconds(accessTtlSeconds);
+        this.refreshTtl = Duration.ofSeconds(refreshTtlSeconds);
+
+        SecretKey key = new SecretKeySpec(keyBytes(secret, enabled), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.accessTokenDecoder = decoder(key, ACCESS);
+        this.refreshTokenDecoder = decoder(key, REFRESH);
+        this.oauth2RequestDecoder = decoder(key, OAUTH2_REQUEST);
+    }
+
+    /** Verifies bearer tokens on every API request; accepts access tokens only. */
+    public JwtDecoder accessTokenDecoder() {
+        return accessTokenDecoder;
+    }
+
+    public TokenResponse issue(User user) {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder access = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.getEmail())
+                .issuedAt(now)
+                .expiresAt(now.plus(accessTtl))
+                .claim(TYPE_CLAIM, ACCESS)
+                .claim("uid", user.getId())
+                .claim("name", user.getName())
+                .claim("role", user.getRole())
+                .claim("provider", user.getProvider());
+        if (user.getPicture() != null) {
+            access.claim("picture", user.getPicture());
+        }
+        JwtClaimsSet refresh = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.getEmail())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(refreshTtl))
+                .claim(TYPE_CLAIM, REFRESH)
+                .build();
+        return new TokenResponse(encode(access.build()), encode(refresh), "Bearer", accessTtl.toSeconds());
+    }
+
+    /** Trades a valid refresh token for a new pair; empty if the token or its user is no longer valid. */
+    public Optional<TokenResponse> refresh(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            return Optional.empty();
+        }
+        return userCache.findByEmail(jwt.getSubject())
+                .filter(user -> !Boolean.FALSE.equals(user.getIsActive()))
+                .map(this::issue);
+    }
+
+    /** Signs the serialized OAuth2 authorization request kept in a cookie during the Google handshake. */
+    public String signOAuth2Request(String serializedRequest, Duration ttl) {
+        Instant now = Instant.now();
+        return encode(JwtClaimsSet.builder()
+                .issuer(issuer)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(TYPE_CLAIM, OAUTH2_REQUEST)
+                .claim("request", serializedRequest)
+                .build());
+    }
+
+    /** Returns the serialized request from {@link #signOAuth2Request}, or empty if tampered with or expired. */
+    public Optional<String> verifyOAuth2Request(String token) {
+        try {
+            return Optional.ofNullable(oauth2RequestDecoder.decode(token).getClaimAsString("request"));
+        } catch (JwtException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String encode(JwtClaimsSet claims) {
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private JwtDecoder decoder(SecretKey key, String type) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        OAuth2TokenValidator<Jwt> typeValidator = jwt -> type.equals(jwt.getClaimAsString(TYPE_CLAIM))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Expected a " + type + " token", null));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefaultWithIssuer(issuer), typeValidator));
+        return decoder;
+    }
+
+    private static byte[] keyBytes(String secret, boolean enabled) {
+        if (secret == null || secret.isBlank()) {
+            // Fine for a single instance; every node behind a load balancer must share one secret
+            if (enabled) {
+                log.warn("auth.tokens.secret is not set; using a random key, so tokens are only valid on this instance until restart");
+            }
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret.trim());
+        if (bytes.length < 32) {
+            throw new IllegalStateException("auth.tokens.secret must be at least 32 bytes (base64-encoded)");
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.supplychain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.supplychain.model.User;
+import com.supplychain.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived, size-bounded cache of users by email, so {@code /api/auth/user} and repeat OAuth
+ * logins don't cost a database round trip each. Signups and OAuth profile updates go through
+ * {@link #save}, which refreshes the entry on this instance. The API has no other user writes:
+ * a user deactivated or changed in the database, or through another instance, is served from
+ * the cache until the entry expires, up to {@code auth.user-cache.ttl-seconds} on each instance.
+ * Unknown emails are not cached, so a signup is visible at once.
+ * Hit/miss counts are published as {@code cache.gets{cache=auth.users}}.
+ */
+@Service
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> usersByEmail;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${auth.user-cache.max-entries:10000}") long maxEntries,
+                     @Value("${auth.user-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "auth.users");
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usersByEmail.get(email, key -> userRepository.findByEmail(key).orElse(null)));
+    }
+
+    /** Saves the user and replaces its cached entry. */
+    public User save(User user) {
+        User saved = userRepository.save(user);
+        usersByEmail.put(saved.getEmail(), saved);
+        return saved;
+    }
+}
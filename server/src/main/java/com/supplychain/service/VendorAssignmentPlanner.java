@@ -0,0 +1,226 @@
+package com.supplychain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Matches shipments to vendors under per-vendor capacity, in parallel. The shipments are split
+ * into contiguous partitions that are matched on a fork-join pool. Each partition gets a share
+ * of every vendor's spare capacity, in proportion to its size, so partitions never need to
+ * coordinate. Shipments a partition could not place because its share ran out get a
+ * sequential pass over whatever capacity the other partitions left.
+ * <p>
+ * Within a partition, shipments with the fewest eligible vendors are placed first, so ones that
+ * accept any vendor do not use up the only vendors a restricted shipment could go to.
+ * <p>
+ * Pure computation over the inputs: no database access, and the result depends only on the
+ * input order, not on the number of threads.
+ */
+public final class VendorAssignmentPlanner {
+
+    /** How to choose among eligible vendors with room left. */
+    public enum Strategy {
+        /** Lowest load relative to capacity first, spreading work evenly. */
+        BALANCE,
+        /** Highest load relative to capacity first, keeping the number of vendors in use small. */
+        CONSOLIDATE
+    }
+
+    /** A vendor that can take shipments: its current open shipments and the most it may carry. */
+    public record Candidate(long vendorId, String serviceType, int load, int capacity) {
+    }
+
+    /** A shipment to place; a null or empty {@code serviceTypes} accepts any vendor. */
+    public record Demand(long shipmentId, Set<String> serviceTypes) {
+    }
+
+    public static final int UNMATCHED = -1;
+    private static final int PARTITION_SIZE = 512;
+
+    private final ForkJoinPool pool;
+
+    public VendorAssignmentPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Index into {@code vendors} chosen for each demand, in demand order, or {@link #UNMATCHED}
+     * when no eligible vendor has room.
+     */
+    public int[] plan(List<Demand> demands, List<Candidate> vendors, Strategy strategy) {
+        int n = demands.size();
+        int[] result = new int[n];
+        Arrays.fill(result, UNMATCHED);
+        if (n == 0 || vendors.isEmpty()) {
+            return result;
+        }
+
+        // Eligible vendor indexes per distinct set of service types; demands refer to them by number
+        Map<Set<String>, Integer> groupIndex = new HashMap<>();
+        List<int[]> groupList = new ArrayList<>();
+        int[] groupOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            Set<String> types = normalize(demands.get(i).serviceTypes());
+            groupOf[i] = groupIndex.computeIfAbsent(types, t -> {
+                groupList.add(eligible(vendors, t));
+                return groupList.size() - 1;
+            });
+        }
+        int[][] groups = groupList.toArray(new int[0][]);
+        // Most constrained first; ties in first-seen order
+        int[] groupOrder = IntStream.range(0, groups.length).boxed()
+                .sorted(Comparator.comparingInt(g -> groups[g].length))
+                .mapToInt(Integer::intValue).toArray();
+
+        int v = vendors.size();
+        int[] load = new int[v];
+        int[] capacity = new int[v];
+        int[] spare = new int[v];
+        for (int j = 0; j < v; j++) {
+            load[j] = vendors.get(j).load();
+            capacity[j] = vendors.get(j).capacity();
+            spare[j] = Math.max(0, capacity[j] - load[j]);
+        }
+
+        pool.invoke(new Partition(0, n, n, groupOf, groups, groupOrder, load, capacity, spare, strategy, result));
+
+        // Shares are rounded per partition, so some shipments may be left while other partitions had room
+        int[] used = new int[v];
+        for (int chosen : result) {
+            if (chosen != UNMATCHED) {
+                used[chosen]++;
+            }
+        }
+        for (int g : groupOrder) {
+            for (int i = 0; i < n; i++) {
+                if (groupOf[i] != g || result[i] != UNMATCHED) {
+                    continue;
+                }
+                int best = choose(groups[g], strategy, capacity, j -> spare[j] - used[j] > 0, j -> load[j] + used[j]);
+                if (best != UNMATCHED) {
+                    result[i] = best;
+                    used[best]++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> normalize(Set<String> serviceTypes) {
+        if (serviceTypes == null || serviceTypes.isEmpty()) {
+            return Set.of();
+        }
+        return serviceTypes.stream().map(t -> t.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static int[] eligible(List<Candidate> vendors, Set<String> types) {
+        int[] eligible = new int[vendors.size()];
+        int count = 0;
+        for (int j = 0; j < vendors.size(); j++) {
+            String type = vendors.get(j).serviceType();
+            if (types.isEmpty() || (type != null && types.contains(type.trim().toLowerCase(Locale.ROOT)))) {
+                eligible[count++] = j;
+            }
+        }
+        return Arrays.copyOf(eligible, count);
+    }
+
+    private interface IntTest {
+        boolean test(int j);
+    }
+
+    private interface IntScore {
+        double load(int j);
+    }
+
+    // Linear scan: vendors per service type number in the tens, so this beats maintaining a heap
+    private static int choose(int[] eligible, Strategy strategy, int[] capacity, IntTest hasRoom, IntScore load) {
+        int best = UNMATCHED;
+        double bestRatio = 0;
+        for (int j : eligible) {
+            if (!hasRoom.test(j)) {
+                continue;
+            }
+            double ratio = load.load(j) / capacity[j];
+            boolean better = strategy == Strategy.BALANCE ? ratio < bestRatio : ratio > bestRatio;
+            if (best == UNMATCHED || better) {
+                best = j;
+                bestRatio = ratio;
+            }
+        }
+        return best;
+    }
+
+    /** Demands {@code start..end-1}; splits in half until small enough, then matches sequentially. */
+    private static final class Partition extends RecursiveAction {
+        private final int start;
+        private final int end;
+        private final int total;
+        private final int[] groupOf;
+        private final int[][] groups;
+        private final int[] groupOrder;
+        private final int[] load;
+        private final int[] capacity;
+        private final int[] spare;
+        private final Strategy strategy;
+        private final int[] result;  // each partition writes only its own range
+
+        Partition(int start, int end, int total, int[] groupOf, int[][] groups, int[] groupOrder, int[] load,
+                  int[] capacity, int[] spare, Strategy strategy, int[] result) {
+            this.start = start;
+            this.end = end;
+            this.total = total;
+            this.groupOf = groupOf;
+            this.groups = groups;
+            this.groupOrder = groupOrder;
+            this.load = load;
+            this.capacity = capacity;
+            this.spare = spare;
+            this.strategy = strategy;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > PARTITION_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new Partition(start, mid, total, groupOf, groups, groupOrder, load, capacity, spare, strategy, result),
+                          new Partition(mid, end, total, groupOf, groups, groupOrder, load, capacity, spare, strategy, result));
+                return;
+            }
+            int v = spare.length;
+            double share = (double) (end - start) / total;
+            int[] quota = new int[v];
+            double[] base = new double[v];
+            int[] taken = new int[v];
+            for (int j = 0; j < v; j++) {
+                // Difference of cumulative floors: the quotas of adjacent partitions add up to exactly spare[j]
+                quota[j] = (int) ((long) spare[j] * end / total - (long) spare[j] * start / total);
+                base[j] = load[j] * share;  // this partition's slice of the existing load, so ratios compare as globally
+            }
+            // One scan of the range per group: there are only a handful of distinct service type sets
+            for (int g : groupOrder) {
+                for (int i = start; i < end; i++) {
+                    if (groupOf[i] != g) {
+                        continue;
+                    }
+                    int best = choose(groups[g], strategy, capacity, j -> taken[j] < quota[j], j -> base[j] + taken[j]);
+                    if (best != UNMATCHED) {
+                        result[i] = best;
+                        taken[best]++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.supplychain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands WebSocket messages off the Kafka consumer threads. Messages are spread over a fixed set
+ * of single-threaded lanes by key, so messages for one entity keep their order while different
+ * entities are sent in parallel. Lane queues are bounded. When a lane is full, its oldest pending
+ * notification is dropped (and counted) so that polling never waits on slow WebSocket clients.
+ */
+@Service
+public class WebSocketDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final List<ThreadPoolExecutor> lanes;
+    private final Counter droppedCounter;
+
+    public WebSocketDispatcher(SimpMessagingTemplate messagingTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${events.websocket.lanes:4}") int laneCount,
+                               @Value("${events.websocket.queue-capacity:10000}") int queueCapacity) {
+        this.messagingTemplate = messagingTemplate;
+        this.droppedCounter = Counter.builder("events.websocket.dropped")
+                .description("Notifications dropped because a dispatch lane was full")
+                .register(meterRegistry);
+
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            String name = "ws-dispatch-" + i;
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, name),
+                    (task, executor) -> {
+                        if (!executor.isShutdown()) {
+                            // Drop the oldest pending notification to make room for the newest
+                            if (executor.getQueue().poll() != null) {
+                                droppedCounter.increment();
+                            }
+                            if (!executor.getQueue().offer(task)) {
+                                droppedCounter.increment();
+                            }
+                        }
+                    });
+            lanes.add(lane);
+        }
+        Gauge.builder("events.websocket.queued", lanes, l -> l.stream().mapToInt(e -> e.getQueue().size()).sum())
+                .description("Notifications waiting to be sent to WebSocket clients")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues one message per destination, each carrying {@code headers} for subscription
+     * selectors. Messages with the same key are sent in order on one lane.
+     */
+    public void dispatch(String key, List<Destination> destinations, Map<String, Object> headers) {
+        lane(key, destinations.get(0).name()).execute(() -> {
+            for (Destination destination : destinations) {
+                messagingTemplate.convertAndSend(destination.name(), destination.payload(), headers);
+            }
+        });
+    }
+
+    private ThreadPoolExecutor lane(String key, String fallback) {
+        return lanes.get(Math.floorMod(key != null ? key.hashCode() : fallback.hashCode(), lanes.size()));
+    }
+
+    public record Destination(String name, Object payload) {
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Migration: Switch cargo IDs from IDENTITY to a pooled sequence
+-- Date: 2026-10-17
+-- Description: Hibernate cannot batch inserts for IDENTITY columns, because it must read each
+--              generated key back. Cargo now takes IDs from cargo_seq (allocation size 50), so
+--              bulk ingestion is sent as real JDBC batches. Run this BEFORE starting the new
+--              version against an existing database: ddl-auto would otherwise create the
+--              sequence at 1 and collide with existing rows.
+
+CREATE SEQUENCE IF NOT EXISTS cargo_seq INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so the first value fetched
+-- must be at least MAX(cargo_id) + 50.
+SELECT setval('cargo_seq', (SELECT COALESCE(MAX(cargo_id), 0) + 50 FROM cargo), false);
+
+-- Verify the changes
+SELECT sequencename, increment_by, last_value
+FROM pg_sequences
+WHERE sequencename = 'cargo_seq';
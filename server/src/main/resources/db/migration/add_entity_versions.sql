@@ -0,0 +1,17 @@
+-- Migration: Add optimistic-lock version columns backing ETags
+-- Date: 2026-10-17
+-- Description: Each entity gets a @Version column that Hibernate increments on every update.
+--              GET endpoints derive strong ETags from these versions and answer If-None-Match
+--              with 304 without loading rows. Existing rows start at version 0.
+
+ALTER TABLE shipment ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cargo ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE route ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE vendor ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE deliveries ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Verify the changes
+SELECT table_name, column_name, column_default
+FROM information_schema.columns
+WHERE column_name = 'version'
+ORDER BY table_name;
@@ -0,0 +1,35 @@
+-- Migration: Index the foreign keys and filters used on every shipment write and list
+-- Date: 2026-10-17
+-- Description: PostgreSQL does not index foreign key columns automatically. Without these,
+--              the delivery lookup on every shipment status change, the cargo cascade on
+--              shipment delete and the status/route/vendor list filters are sequential scans.
+
+-- Delivery lookup by shipment (ShipmentController.updateShipment / deleteShipment)
+CREATE INDEX IF NOT EXISTS idx_deliveries_shipment_id ON deliveries (shipment_id);
+
+-- Cargo cascade on shipment delete and cargo filtering by shipment
+CREATE INDEX IF NOT EXISTS idx_cargo_shipment_id ON cargo (shipment_id);
+
+-- Shipment filters by route, vendor and status
+CREATE INDEX IF NOT EXISTS idx_shipment_route_id ON shipment (route_id);
+CREATE INDEX IF NOT EXISTS idx_shipment_vendor_id ON shipment (vendor_id);
+CREATE INDEX IF NOT EXISTS idx_shipment_status ON shipment (status);
+
+ANALYZE deliveries;
+ANALYZE cargo;
+ANALYZE shipment;
+
+-- Verify the changes
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE indexname IN ('idx_deliveries_shipment_id', 'idx_cargo_shipment_id',
+                    'idx_shipment_route_id', 'idx_shipment_vendor_id', 'idx_shipment_status');
+
+-- Verify the query plans: each should show an Index Scan / Index Only Scan / Bitmap Index Scan
+-- on the index named above rather than a Seq Scan (on tiny tables the planner may still
+-- prefer a Seq Scan; run with SET enable_seqscan = off to confirm the index is usable).
+EXPLAIN SELECT 1 FROM deliveries WHERE shipment_id = 1 LIMIT 1;
+EXPLAIN SELECT * FROM cargo WHERE shipment_id = 1;
+EXPLAIN SELECT * FROM shipment WHERE route_id = 1;
+EXPLAIN SELECT * FROM shipment WHERE vendor_id = 1;
+EXPLAIN SELECT * FROM shipment WHERE status = 'In Transit';
@@ -0,0 +1,14 @@
+-- Migration: Add composite indexes backing keyset pagination of shipments and cargo
+-- Date: 2026-10-17
+-- Description: GET /api/shipments/page and /api/cargo/page order by (created_at DESC, id DESC)
+--              and seek past the cursor with (created_at, id) < (?, ?). These indexes turn each
+--              page into a bounded index range scan instead of a sort over the whole table.
+
+CREATE INDEX IF NOT EXISTS idx_shipment_created_at_id ON shipment (created_at, shipment_id);
+
+CREATE INDEX IF NOT EXISTS idx_cargo_created_at_id ON cargo (created_at, cargo_id);
+
+-- Verify the changes
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE indexname IN ('idx_shipment_created_at_id', 'idx_cargo_created_at_id');
@@ -0,0 +1,25 @@
+-- Migration: Add transactional outbox for Kafka events
+-- Date: 2026-10-17
+-- Description: Controllers write each Kafka message into outbox_event in the same transaction
+--              as the entity change. OutboxRelay drains the table in id order and deletes rows
+--              once the broker has acknowledged them, so a message is never lost when Kafka is
+--              down and never sent for a write that rolled back.
+
+-- Not pooled: ids must be drawn from one shared counter so that successive writes of an entity,
+-- which serialize on its row lock and version check, get increasing ids on any instance
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq INCREMENT BY 1;
+ALTER SEQUENCE outbox_event_seq INCREMENT BY 1;  -- databases created when it was pooled by 50
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGINT PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_name = 'outbox_event'
+ORDER BY ordinal_position;
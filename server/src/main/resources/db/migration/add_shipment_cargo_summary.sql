@@ -0,0 +1,52 @@
+-- Migration: Add per-shipment cargo totals and the manifest pagination index
+-- Date: 2026-10-17
+-- Description: shipment_cargo_summary holds item count, value, volume and weight in kg for each
+--              shipment's cargo. Cargo writes keep it current in their own transaction, so
+--              GET /api/shipments/{id}/cargo/summary reads one row. This backfills the totals
+--              for every existing shipment (new shipments get a zero row when created),
+--              converting weights the same way as WeightUnits.toKilograms.
+--              Run it while cargo writes are stopped, or rows written meanwhile are not counted.
+
+CREATE TABLE IF NOT EXISTS shipment_cargo_summary (
+    shipment_id BIGINT PRIMARY KEY REFERENCES shipment (shipment_id) ON DELETE CASCADE,
+    item_count BIGINT NOT NULL,
+    total_value NUMERIC(19, 2) NOT NULL,
+    total_volume NUMERIC(19, 2) NOT NULL,
+    total_weight_kg NUMERIC(19, 3) NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO shipment_cargo_summary (shipment_id, item_count, total_value, total_volume, total_weight_kg, version, updated_at)
+SELECT s.shipment_id,
+       COUNT(c.cargo_id),
+       COALESCE(SUM(c.value), 0),
+       COALESCE(SUM(c.volume), 0),
+       COALESCE(SUM(ROUND(COALESCE(c.weight, 0) *
+           CASE LOWER(TRIM(COALESCE(c.weight_unit, 'kg')))
+               WHEN 'lb' THEN 0.45359237
+               WHEN 'lbs' THEN 0.45359237
+               WHEN 't' THEN 1000
+               WHEN 'ton' THEN 1000
+               WHEN 'tons' THEN 1000
+               WHEN 'tonne' THEN 1000
+               WHEN 'tonnes' THEN 1000
+               WHEN 'g' THEN 0.001
+               ELSE 1
+           END, 3)), 0),
+       0,
+       NOW()
+FROM shipment s
+LEFT JOIN cargo c ON c.shipment_id = s.shipment_id
+GROUP BY s.shipment_id
+ON CONFLICT (shipment_id) DO NOTHING;
+
+-- GET /api/shipments/{id}/cargo seeks within one shipment by (created_at DESC, cargo_id DESC)
+CREATE INDEX IF NOT EXISTS idx_cargo_shipment_created_at_id ON cargo (shipment_id, created_at, cargo_id);
+
+-- Verify the changes: totals that disagree with the cargo table (expect no rows)
+SELECT s.shipment_id, s.item_count, COUNT(c.cargo_id) AS actual_count
+FROM shipment_cargo_summary s
+LEFT JOIN cargo c ON c.shipment_id = s.shipment_id
+GROUP BY s.shipment_id, s.item_count
+HAVING s.item_count <> COUNT(c.cargo_id);
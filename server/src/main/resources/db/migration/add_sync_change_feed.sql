@@ -0,0 +1,45 @@
+-- Migration: Add updated_at columns and deletion tombstones for the sync change feed
+-- Date: 2026-10-17
+-- Description: GET /api/sync returns rows with updated_at at or after the client's cursor, plus
+--              the ids recorded in tombstone by deletes. Shipment already has updated_at; the
+--              other tables get it here, backfilled from created_at, so existing rows satisfy
+--              NOT NULL before Hibernate starts maintaining it.
+
+ALTER TABLE cargo ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE cargo SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE cargo ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE route ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE route SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE route ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE vendor ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE vendor SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE vendor ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE deliveries ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE deliveries SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE deliveries ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_shipment_updated_at ON shipment (updated_at);
+CREATE INDEX IF NOT EXISTS idx_cargo_updated_at ON cargo (updated_at);
+CREATE INDEX IF NOT EXISTS idx_route_updated_at ON route (updated_at);
+CREATE INDEX IF NOT EXISTS idx_vendor_updated_at ON vendor (updated_at);
+CREATE INDEX IF NOT EXISTS idx_deliveries_updated_at ON deliveries (updated_at);
+
+CREATE SEQUENCE IF NOT EXISTS tombstone_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tombstone (
+    id BIGINT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_deleted_at ON tombstone (deleted_at);
+
+-- Verify the changes
+SELECT table_name, column_name, is_nullable
+FROM information_schema.columns
+WHERE column_name = 'updated_at'
+ORDER BY table_name;
@@ -0,0 +1,146 @@
+package com.supplychain.controller;
+
+import com.supplychain.model.Cargo;
+import com.supplychain.model.Delivery;
+import com.supplychain.model.Route;
+import com.supplychain.model.Shipment;
+import com.supplychain.model.Vendor;
+import com.supplychain.repository.CargoRepository;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.RouteRepository;
+import com.supplychain.repository.ShipmentRepository;
+import com.supplychain.repository.VendorRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each list and detail endpoint prepares, as recorded by
+ * {@link com.supplychain.config.SqlStatementMetrics}. Several shipments with their own route,
+ * vendor, cargo and delivery are seeded, so a lazy association loaded per row shows up as a
+ * count above the expected one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadEndpointStatementCountTest {
+
+    private static final int SHIPMENTS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private CargoRepository cargoRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    private Shipment shipment;
+    private Cargo cargo;
+    private Delivery delivery;
+
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < SHIPMENTS; i++) {
+            Route route = new Route();
+            route.setOriginPort("Port A" + i);
+            route.setDestinationPort("Port B" + i);
+            route.setDuration(3);
+            route = routeRepository.save(route);
+
+            Vendor vendor = new Vendor();
+            vendor.setName("Statement Count Vendor " + i);
+            vendor.setServiceType("Shipping");
+            vendor = vendorRepository.save(vendor);
+
+            shipment = new Shipment();
+            shipment.setOrigin("A" + i);
+            shipment.setDestination("B" + i);
+            shipment.setStatus("Delivered");
+            shipment.setEstimatedDelivery(LocalDate.of(2026, 10, 20));
+            shipment.setAssignedRoute(route);
+            shipment.setAssignedVendor(vendor);
+            shipment = shipmentRepository.save(shipment);
+
+            for (int c = 0; c < 2; c++) {
+                cargo = new Cargo();
+                cargo.setShipment(shipment);
+                cargo.setType("Pallet");
+                cargo.setValue(BigDecimal.TEN);
+                cargo.setWeight(BigDecimal.ONE);
+                cargo = cargoRepository.save(cargo);
+            }
+
+            delivery = new Delivery();
+            delivery.setShipment(shipment);
+            delivery.setRecipient("Recipient " + i);
+            delivery.setStatus("Delivered");
+            delivery.setActualDeliveryDate(LocalDateTime.of(2026, 10, 20, 12, 0));
+            delivery = deliveryRepository.save(delivery);
+        }
+    }
+
+    @ParameterizedTest(name = "GET {1} prepares {2} statements")
+    @CsvSource({
+            "/api/shipments,                       /api/shipments,                      4",
+            "/api/shipments/page,                  /api/shipments/page,                 4",
+            "/api/shipments/{shipment},            /api/shipments/{id},                 2",
+            "/api/shipments/{shipment}/cargo,      /api/shipments/{id}/cargo,           4",
+            "/api/cargo,                           /api/cargo,                          3",
+            "/api/cargo/page,                      /api/cargo/page,                     3",
+            "/api/cargo/{cargo},                   /api/cargo/{id},                     2",
+            "/api/deliveries,                      /api/deliveries,                     3",
+            "/api/deliveries/page,                 /api/deliveries/page,                3",
+            "/api/deliveries/{delivery},           /api/deliveries/{id},                2"
+    })
+    void readPreparesExpectedStatements(String path, String pattern, int expected) throws Exception {
+        DistributionSummary before = summary(pattern);
+        double total = before != null ? before.totalAmount() : 0;
+        long requests = before != null ? before.count() : 0;
+
+        mvc.perform(get(path
+                        .replace("{shipment}", shipment.getShipmentId().toString())
+                        .replace("{cargo}", cargo.getCargoId().toString())
+                        .replace("{delivery}", delivery.getDeliveryId().toString())))
+                .andExpect(status().isOk());
+
+        DistributionSummary after = summary(pattern);
+        assertThat(after).isNotNull();
+        assertThat(after.count()).isEqualTo(requests + 1);
+        assertThat(after.totalAmount() - total).isEqualTo(expected);
+    }
+
+    private DistributionSummary summary(String pattern) {
+        return meterRegistry.find("http.server.sql.statements").tag("method", "GET").tag("uri", pattern).summary();
+    }
+}
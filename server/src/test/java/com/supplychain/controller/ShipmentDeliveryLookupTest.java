@@ -0,0 +1,98 @@
+package com.supplychain.controller;
+
+import com.supplychain.model.Shipment;
+import com.supplychain.repository.DeliveryRepository;
+import com.supplychain.repository.ShipmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The delivery lookups on shipment update and delete go through shipment_id instead of loading
+ * every delivery, and the hot-path filters have an index the database actually uses.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ShipmentDeliveryLookupTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @SpyBean
+    private DeliveryRepository deliveryRepository;
+
+    @Test
+    void deliveredUpdateChecksForDeliveryByShipment() throws Exception {
+        Shipment shipment = shipment("Created");
+
+        mvc.perform(put("/api/shipments/" + shipment.getShipmentId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"origin\":\"A\",\"destination\":\"B\",\"status\":\"Delivered\",\"estimatedDelivery\":\"2026-10-20\"}"))
+                .andExpect(status().isOk());
+
+        verify(deliveryRepository).existsByShipment(any(Shipment.class));
+        verify(deliveryRepository, never()).findAll();
+        assertThat(deliveryRepository.findByShipment(shipment)).isPresent();
+    }
+
+    @Test
+    void deleteLoadsDeliveryByShipment() throws Exception {
+        Shipment shipment = shipment("Created");
+
+        mvc.perform(delete("/api/shipments/" + shipment.getShipmentId()))
+                .andExpect(status().isOk());
+
+        verify(deliveryRepository).findByShipment(any(Shipment.class));
+        verify(deliveryRepository, never()).findAll();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "SELECT 1 FROM deliveries WHERE shipment_id = 1 LIMIT 1 | shipment_id",
+            "SELECT * FROM cargo WHERE shipment_id = 1              | shipment_id",
+            "SELECT * FROM shipment WHERE route_id = 1              | route_id",
+            "SELECT * FROM shipment WHERE vendor_id = 1             | vendor_id",
+            "SELECT * FROM shipment WHERE status = 'In Transit'     | status"
+    })
+    void hotPathLookupUsesIndex(String query, String column) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class)).toLowerCase(Locale.ROOT);
+
+        // H2 names the index it seeks in a comment, e.g. /* public.idx_shipment_status: status = 'In Transit' */
+        assertThat(plan).containsPattern("/\\* public\\.\\w+: " + column + " =").doesNotContain("tablescan");
+    }
+
+    private Shipment shipment(String status) {
+        Shipment shipment = new Shipment();
+        shipment.setOrigin("A");
+        shipment.setDestination("B");
+        shipment.setStatus(status);
+        shipment.setEstimatedDelivery(LocalDate.of(2026, 10, 20));
+        return shipmentRepository.save(shipment);
+    }
+}